@@ -0,0 +1,97 @@
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+
+// 所有畫面共用的圖片資源：第一次使用時從 classpath 載入 (找不到時退回 src/ 下的檔案)，
+// 並轉成與螢幕相容的格式，繪製時不需要再轉換像素格式；之後的畫面直接取用同一份
+public final class Assets {
+    private static final String SOURCE_DIR = "src"; // 直接以 javac 輸出目錄執行時，圖片不在 classpath 上
+
+    private static final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+    private static final Map<String, SpriteCache> spriteCaches = new ConcurrentHashMap<>();
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private Assets() { }
+
+    // 載入失敗時回傳 null (只輸出一次錯誤)
+    public static BufferedImage image(String name) {
+        BufferedImage image = images.computeIfAbsent(name, Assets::load);
+        return image != MISSING ? image : null;
+    }
+
+    // 圖片預先縮放成 MIN_SIZE..maxSize 每個整數尺寸的精靈圖；圖片不存在時回傳 null
+    public static SpriteCache sprites(String name, int maxSize) {
+        BufferedImage source = image(name);
+        if (source == null) return null;
+        return spriteCaches.computeIfAbsent(name + "@" + maxSize, key -> new SpriteCache(source, maxSize));
+    }
+
+    // 關閉視窗時釋放所有圖片
+    public static void flush() {
+        for (BufferedImage image : images.values()) {
+            image.flush();
+        }
+        for (SpriteCache cache : spriteCaches.values()) {
+            cache.flush();
+        }
+        images.clear();
+        spriteCaches.clear();
+    }
+
+    private static BufferedImage load(String name) {
+        try (InputStream in = Assets.class.getResourceAsStream("/" + name)) {
+            BufferedImage image = in != null ? ImageIO.read(in) : ImageIO.read(new File(SOURCE_DIR, name));
+            if (image == null) {
+                System.err.println("Unsupported image format: " + name);
+                return MISSING;
+            }
+            return toCompatible(image);
+        } catch (IOException e) {
+            System.err.println("Failed to load image " + name + ": " + e.getMessage());
+            return MISSING;
+        }
+    }
+
+    // 與預設螢幕相同的像素格式 (無視窗環境時使用預乘 alpha 的 ARGB)
+    static BufferedImage createCompatible(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private static BufferedImage toCompatible(BufferedImage image) {
+        BufferedImage copy = createCompatible(image.getWidth(), image.getHeight());
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    // 以雙線性插值把 image 縮放成 width x height
+    static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage scaled = createCompatible(width, height);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,98 @@
+import data.Arsenal;
+import data.Pitcher;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import sim.Heatmap;
+import sim.HeatmapExport;
+import sim.MonteCarloSimulator;
+import sim.PhysicsModel;
+import sim.PitchSimulator;
+import sim.PitchTargets;
+import sim.SimulationResult;
+import sim.TargetDistribution;
+
+// 批次模擬模式：對資料庫中每位投手的每個球種執行大量投球，輸出好壞球與落點統計
+// 用法: java [-Dsim.targets=hitting|zone:0.7|uniform|aim:x:y] [-Dsim.physics=analytic|aero] BatchSimulation [每個球種的投球數] [seed] [執行緒數] [熱圖輸出目錄]
+public class BatchSimulation {
+    private static final int HEATMAP_CELLS_PER_FOOT = 12; // 1 英吋一格
+    private static final int HEATMAP_CELL_PX = 8;
+
+    public static void main(String[] args) {
+        long pitches = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20240601L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path exportDir = args.length > 3 ? Paths.get(args[3]) : null;
+        TargetDistribution targets = PitchTargets.parse(System.getProperty("sim.targets", "hitting"));
+
+        PitcherRepository repository = PitcherRepository.getInstance();
+        List<Pitcher> pitchers = repository.getAllPitchers();
+        if (pitchers.isEmpty()) {
+            System.err.println("No pitchers found. Is the database running?");
+            return;
+        }
+
+        PhysicsModel physics = PhysicsModel.fromSystemProperty("sim.physics");
+        MonteCarloSimulator simulator = new MonteCarloSimulator(seed, threads, physics);
+        System.out.printf("Simulating %,d pitches per pitch type, seed=%d, threads=%d, targets=%s, physics=%s%n",
+                pitches, seed, threads, System.getProperty("sim.targets", "hitting"), physics);
+        System.out.printf("%-16s %-10s %8s %8s %8s %8s %8s %8s %9s%n",
+                "PITCHER", "PITCH", "STRIKE%", "MEAN_X", "MEAN_Y", "SD_X", "SD_Y", "FLIGHT", "PLATE_MPH");
+
+        long startTime = System.nanoTime();
+        long total = 0;
+        for (Pitcher pitcher : pitchers) {
+            Arsenal arsenal = repository.getArsenal(pitcher.getPid());
+            for (int slot = 0; slot < arsenal.size(); slot++) {
+                SimulationResult result = simulator.simulate(arsenal.getTrajectoryData(slot), pitches, targets);
+                total += result.getPitches();
+                System.out.printf("%-16s %-10s %7.2f%% %8.3f %8.3f %8.3f %8.3f %8.4f %9.1f%n",
+                        pitcher.getPname(), arsenal.getName(slot), result.getStrikeRate() * 100,
+                        result.getMeanX(), result.getMeanY(), result.getStdDevX(), result.getStdDevY(),
+                        result.getMeanFlightTime(), result.getMeanPlateSpeed() / PitchSimulator.MPH_TO_FTS);
+            }
+            if (arsenal.isEmpty()) continue;
+
+            // 依 USEP 混合所有球種，檢查實際配球比例
+            SimulationResult[] mix = simulator.simulateArsenal(arsenal, pitches, targets);
+            for (int i = 0; i < mix.length; i++) {
+                total += mix[i].getPitches();
+                System.out.printf("%-16s MIX %-6s share=%6.2f%% (USEP %5.1f) strike=%6.2f%%%n",
+                        pitcher.getPname(), arsenal.getName(i), 100.0 * mix[i].getPitches() / pitches, arsenal.getUsep(i),
+                        mix[i].getStrikeRate() * 100);
+            }
+
+            if (exportDir != null) {
+                Heatmap[] heatmaps = simulator.heatmaps(arsenal, pitches, targets, HEATMAP_CELLS_PER_FOOT);
+                for (Heatmap heatmap : heatmaps) {
+                    total += heatmap.getPitches();
+                }
+                exportHeatmaps(exportDir, pitcher, arsenal, heatmaps);
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        System.out.printf("Done: %,d pitches in %.2f s (%,.0f pitches/s)%n", total, seconds, total / seconds);
+    }
+
+    // 每個球種與全部球種合計各輸出 <PID>_<球種>.csv、_zones.csv 與 .png
+    private static void exportHeatmaps(Path dir, Pitcher pitcher, Arsenal arsenal, Heatmap[] heatmaps) {
+        try {
+            Files.createDirectories(dir);
+            for (int slot = 0; slot < heatmaps.length; slot++) {
+                exportHeatmap(dir, pitcher.getPid() + "_" + arsenal.getName(slot), heatmaps[slot]);
+            }
+            exportHeatmap(dir, pitcher.getPid() + "_ALL", Heatmap.sum(heatmaps));
+        } catch (IOException e) {
+            System.err.println("Error exporting heatmaps for " + pitcher.getPname() + ": " + e.getMessage());
+        }
+    }
+
+    private static void exportHeatmap(Path dir, String name, Heatmap heatmap) throws IOException {
+        String safeName = name.replaceAll("[^A-Za-z0-9_-]", "_");
+        HeatmapExport.writeCsv(heatmap, dir.resolve(safeName + ".csv"));
+        HeatmapExport.writeZoneCsv(heatmap, dir.resolve(safeName + "_zones.csv"));
+        HeatmapExport.writePng(heatmap, dir.resolve(safeName + ".png"), HEATMAP_CELL_PX);
+    }
+}
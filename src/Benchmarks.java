@@ -0,0 +1,309 @@
+import data.Arsenal;
+import data.TrajectoryData;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import sim.AeroModel;
+import sim.AnalyticTrajectory;
+import sim.PitchSimulator;
+
+// 熱路徑的微基準測試：物理、投影與離屏繪製、資料庫查詢
+// 每項先暖機，再量測數輪固定時間，輸出 ns/op 與每次操作配置的位元組數 (等同 JMH 的 GC profiler 的 gc.alloc.rate.norm)
+// 每一項在自己的子 JVM 中執行 (同 JMH 的 fork)，前面的項目留下的 JIT profile 不會影響後面的結果
+// 資料庫項目預設使用記憶體中的 H2 替身 (以 CREATETABLE.sql 建立)；-Ddata.store=mysql|embedded|snapshot 可以改用其他來源
+// 用法: java -Djava.awt.headless=true Benchmarks [名稱過濾字串]
+public class Benchmarks {
+    private static final String BENCHMARK_DB_URL =
+            "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=TRUE;NON_KEYWORDS=YEAR";
+
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+    private static final int MEASURE_ROUNDS = 5;
+
+    // 防止 JIT 把結果消除
+    private static volatile double sink;
+
+    // 父行程只收集要執行的項目名稱，再逐項啟動子 JVM；子 JVM 只執行 forkedName 這一項
+    private static List<String> planned;
+    private static String forkedName;
+
+    private interface Benchmark {
+        // 執行 ops 次操作，回傳結果給 sink 消化
+        double run(int ops);
+    }
+
+    private static final TrajectoryData FASTBALL = new TrajectoryData(6, 1, 27.0, 2.4, -10.4, 1.6, 6.4, 97.7);
+
+    public static void main(String[] args) {
+        if (args.length == 2 && "--fork".equals(args[0])) {
+            forkedName = args[1];
+            runBenchmarks(forkedName);
+            System.exit(0); // 背景執行緒 (連線池、平行模擬) 不一定會自行結束
+        }
+
+        String filter = args.length > 0 ? args[0] : "";
+        planned = new ArrayList<>();
+        runBenchmarks(filter);
+        System.out.printf("%-32s %14s %14s %12s%n", "BENCHMARK", "ns/op", "ops/s", "B/op");
+        for (String name : planned) {
+            fork(name);
+        }
+        System.exit(0);
+    }
+
+    // 以相同的 JVM 參數與 classpath 啟動子 JVM 執行一項，輸出直接接到這個行程
+    private static void fork(String name) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Benchmarks.class.getName());
+        command.add("--fork");
+        command.add(name);
+        try {
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) System.err.println(name + ": forked JVM exited with status " + exit);
+        } catch (IOException e) {
+            System.err.println(name + ": cannot start forked JVM: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runBenchmarks(String filter) {
+        run(filter, "trajectory.solve", ops -> {
+            double acc = 0;
+            for (int i = 0; i < ops; i++) {
+                acc += AnalyticTrajectory.solve(FASTBALL, (i & 15) * 0.1 - 0.8, 2.5).getVx();
+            }
+            return acc;
+        });
+
+        // AERO 模式：每次操作是一整批 BATCH_SIZE 球的預測與修正積分，ns/op 除以批次大小即為每球成本
+        AeroModel aero = AeroModel.calibrate(Arsenal.of(Collections.singletonMap("FASTBALL", FASTBALL)));
+        int batch = AeroModel.BATCH_SIZE;
+        int[] slots = new int[batch];
+        double[] targetX = new double[batch], targetY = new double[batch];
+        double[] plateX = new double[batch], plateY = new double[batch], flightTime = new double[batch], plateSpeed = new double[batch];
+        for (int i = 0; i < batch; i++) {
+            targetX[i] = (i & 15) * 0.1 - 0.8;
+            targetY[i] = 1.5 + (i >> 4) * 0.125;
+        }
+        run(filter, "aero.solveBatch", ops -> {
+            double acc = 0;
+            for (int i = 0; i < ops; i++) {
+                aero.solveBatch(batch, slots, targetX, targetY, plateX, plateY, flightTime, plateSpeed);
+                acc += flightTime[i % batch];
+            }
+            return acc;
+        });
+
+        PitchSimulator simulator = new PitchSimulator();
+        run(filter, "simulator.frameStep", ops -> {
+            double acc = 0;
+            for (int i = 0; i < ops; i++) {
+                if (!simulator.isInFlight()) simulator.launch(FASTBALL, 0.2, 2.4);
+                simulator.advance(1.0 / 60.0); // 與 Swing Timer 每幀相同的推進量
+                acc += simulator.getRenderZ();
+            }
+            return acc;
+        });
+
+        GamePanel panel = new GamePanel(true, null, null);
+        panel.setSize(1000, 700);
+        int[] projected = new int[2];
+        run(filter, "gamePanel.project3D", ops -> {
+            double acc = 0;
+            for (int i = 0; i < ops; i++) {
+                if (panel.project3D((i & 7) * 0.1, 2.5, 1.4 + (i & 63), projected)) acc += projected[0];
+            }
+            return acc;
+        });
+
+        run(filter, "gamePanel.calculateBallSize", ops -> {
+            double acc = 0;
+            for (int i = 0; i < ops; i++) {
+                acc += panel.calculateBallSize(1.4 + (i & 63));
+            }
+            return acc;
+        });
+
+        // 不含繪製的一幀：推進遊戲狀態、記錄量測並計算重繪區域 (打擊模式自動倒數、投球)
+        // 與 SoakTest 相同，換上虛擬時鐘後每次呼叫推進 1/60 秒
+        long[] frameClock = {0};
+        GamePanel ticking = new GamePanel(null);
+        ticking.useClock(() -> frameClock[0]);
+        ticking.configure(true, null);
+        run(filter, "gamePanel.tick", ops -> {
+            for (int i = 0; i < ops; i++) {
+                frameClock[0] += 16_666_667L;
+                ticking.tick(frameClock[0]);
+            }
+            return frameClock[0];
+        });
+
+        BufferedImage frame = new BufferedImage(1000, 700, BufferedImage.TYPE_INT_RGB);
+        run(filter, "gamePanel.paintOffscreen", ops -> {
+            for (int i = 0; i < ops; i++) {
+                Graphics2D g2d = frame.createGraphics();
+                try {
+                    panel.paint(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            }
+            return frame.getRGB(500, 350);
+        });
+
+        // 重繪區域追蹤後一般的一幀：只重繪球附近的區域
+        run(filter, "gamePanel.paintBallRegion", ops -> {
+            for (int i = 0; i < ops; i++) {
+                Graphics2D g2d = frame.createGraphics();
+                try {
+                    g2d.clipRect(480 + (i & 7), 330, 40, 40);
+                    panel.paint(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            }
+            return frame.getRGB(500, 350);
+        });
+
+        // 同一個 Graphics2D 重複繪製，只量測面板本身的繪製 (不含 createGraphics 與 JComponent.paint 的配置)
+        Graphics2D reused = frame.createGraphics();
+        reused.clipRect(480, 330, 40, 40);
+        run(filter, "gamePanel.paintComponent", ops -> {
+            for (int i = 0; i < ops; i++) {
+                panel.paintComponent(reused);
+            }
+            return frame.getRGB(500, 350);
+        });
+
+        // 球的繪製：每幀把原圖縮放到目前尺寸，與直接貼上預先縮放的精靈圖比較
+        BufferedImage ball = Assets.image("ball.png");
+        if (ball != null) {
+            SpriteCache sprites = Assets.sprites("ball.png", panel.calculateBallSize(PitchSimulator.HOME_PLATE_FRONT_FT));
+            int maxSize = sprites.getMaxSize();
+            run(filter, "ballDraw.scaled", ops -> {
+                Graphics2D g2d = frame.createGraphics();
+                try {
+                    for (int i = 0; i < ops; i++) {
+                        int size = SpriteCache.MIN_SIZE + i % (maxSize - 1);
+                        g2d.drawImage(ball, 500, 350, size, size, null);
+                    }
+                } finally {
+                    g2d.dispose();
+                }
+                return frame.getRGB(505, 355);
+            });
+            run(filter, "ballDraw.sprite", ops -> {
+                Graphics2D g2d = frame.createGraphics();
+                try {
+                    for (int i = 0; i < ops; i++) {
+                        g2d.drawImage(sprites.get(SpriteCache.MIN_SIZE + i % (maxSize - 1)), 500, 350, null);
+                    }
+                } finally {
+                    g2d.dispose();
+                }
+                return frame.getRGB(505, 355);
+            });
+        }
+
+        if (matches(filter, "db.")) {
+            PitcherStore store = benchmarkStore();
+            if (planned != null || isStoreReachable(store)) { // 父行程只收集名稱，不連線
+                run(filter, "db.loadArsenal", ops -> {
+                    double acc = 0;
+                    for (int i = 0; i < ops; i++) {
+                        try {
+                            acc += store.loadArsenal(1 + (i % 6)).size();
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    return acc;
+                });
+                run(filter, "db.loadCatalog", ops -> {
+                    double acc = 0;
+                    for (int i = 0; i < ops; i++) {
+                        try {
+                            acc += store.loadCatalog().getPitchers().size();
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    return acc;
+                });
+            }
+        }
+    }
+
+    private static boolean matches(String filter, String name) {
+        return filter.isEmpty() || name.contains(filter) || filter.contains(name);
+    }
+
+    // 沒有指定 data.store 時使用記憶體中的 H2，不需要任何外部資料庫
+    private static PitcherStore benchmarkStore() {
+        if (System.getProperty("data.store") != null) return PitcherStore.fromSystemProperties();
+        return new EmbeddedDatabase(BENCHMARK_DB_URL, Paths.get(EmbeddedDatabase.DEFAULT_SCHEMA));
+    }
+
+    private static boolean isStoreReachable(PitcherStore store) {
+        try {
+            store.loadCatalog();
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Skipping database benchmarks (" + store.describe() + "): " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void run(String filter, String name, Benchmark benchmark) {
+        if (!matches(filter, name)) return;
+        if (planned != null) {
+            planned.add(name);
+            return;
+        }
+        if (forkedName != null && !forkedName.equals(name)) return;
+
+        // 暖機並估算每輪的操作次數
+        int batch = 1;
+        long warmupStart = System.nanoTime();
+        while (System.nanoTime() - warmupStart < WARMUP_NANOS) {
+            long start = System.nanoTime();
+            sink += benchmark.run(batch);
+            if (System.nanoTime() - start < 10_000_000L) batch = Math.min(batch * 2, 1 << 24);
+        }
+
+        double bestNanosPerOp = Double.MAX_VALUE;
+        double totalNanosPerOp = 0;
+        double totalBytesPerOp = 0;
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            long ops = 0;
+            long bytesBefore = GameMetrics.allocatedBytes();
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                sink += benchmark.run(batch);
+                ops += batch;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MEASURE_NANOS);
+            long bytes = GameMetrics.allocatedBytes() - bytesBefore;
+            double nanosPerOp = (double) elapsed / ops;
+            bestNanosPerOp = Math.min(bestNanosPerOp, nanosPerOp);
+            totalNanosPerOp += nanosPerOp;
+            totalBytesPerOp += bytes < 0 ? 0 : (double) bytes / ops;
+        }
+        double meanNanosPerOp = totalNanosPerOp / MEASURE_ROUNDS;
+        System.out.printf("%-32s %14.1f %14.0f %12.1f   (best %.1f ns/op)%n", name, meanNanosPerOp,
+                1_000_000_000.0 / meanNanosPerOp, totalBytesPerOp / MEASURE_ROUNDS, bestNanosPerOp);
+    }
+
+}
\ No newline at end of file
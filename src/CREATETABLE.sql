@@ -15,6 +15,11 @@ CREATE TABLE PITCHER (
     PTYPE INT
 );
 
+-- 投手列表以 PID 做 keyset 分頁，篩選條件各自建立 (條件, PID) 的複合索引，篩選後不需要再排序
+CREATE INDEX IDX_PITCHER_TID ON PITCHER (TID, PID);
+CREATE INDEX IDX_PITCHER_LR ON PITCHER (LR, PID);
+CREATE INDEX IDX_PITCHER_YEAR ON PITCHER (YEAR, PID);
+
 INSERT INTO PITCHER (TID, PID, PNAME, YEAR, LR, STUFF, VELOCITY, PTYPE) VALUES
 (1, 1, 'SHOHEI OHTANI', 23, 'R', 80, 80, 36),
 (1, 2, 'PUAL SKENES', 25, 'R', 80, 80, 22),
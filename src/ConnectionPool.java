@@ -0,0 +1,274 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 有上限的共用連線池
+// 借出的連線是代理物件，close() 會把實體連線放回池中而不是斷線，
+// 所以驅動程式端的 PreparedStatement 快取可以跨查詢重複使用
+public class ConnectionPool {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long validateAfterIdleMillis;
+    private final int validationTimeoutSeconds;
+
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private volatile boolean closed = false;
+
+    // 連線池指標
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong();
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    public ConnectionPool(String url, String user, String password, int maxSize) {
+        this(url, user, password, maxSize, 5_000, 30_000, 2);
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long borrowTimeoutMillis, long validateAfterIdleMillis, int validationTimeoutSeconds) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    // 借出一條連線；使用完畢後呼叫 close() 歸還
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a pooled connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        totalBorrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled = takeHealthyIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+                createdCount.incrementAndGet();
+            }
+            borrowCount.incrementAndGet();
+            activeCount.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // 從閒置佇列取出一條通過健康檢查的連線，沒有則回傳 null
+    private PooledConnection takeHealthyIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isHealthy(pooled)) return pooled;
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private boolean isHealthy(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) return false;
+            // 閒置太久才做一次往返檢查，平常借出不需要額外查詢
+            if (System.currentTimeMillis() - pooled.lastReturnedMillis < validateAfterIdleMillis) return true;
+            if (pooled.physical.isValid(validationTimeoutSeconds)) return true;
+            validationFailures.incrementAndGet();
+            return false;
+        } catch (SQLException e) {
+            validationFailures.incrementAndGet();
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        activeCount.decrementAndGet();
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.lastReturnedMillis = System.currentTimeMillis();
+                idle.offerFirst(pooled); // 最近歸還的優先借出，讓多餘的連線自然閒置
+            } else {
+                discard(pooled);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        discardedCount.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    // 關閉連線池與所有閒置連線；借出中的連線在歸還時關閉
+    public void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public int getActiveCount() { return activeCount.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getDiscardedCount() { return discardedCount.get(); }
+    public long getValidationFailures() { return validationFailures.get(); }
+    public long getBorrowTimeouts() { return borrowTimeouts.get(); }
+
+    public double getAverageBorrowWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalBorrowWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[max=%d, active=%d, idle=%d, created=%d, borrowed=%d, discarded=%d, "
+                + "validationFailures=%d, timeouts=%d, avgWait=%.3f ms]",
+                maxSize, getActiveCount(), getIdleCount(), getCreatedCount(), getBorrowCount(),
+                getDiscardedCount(), getValidationFailures(), getBorrowTimeouts(), getAverageBorrowWaitMillis());
+    }
+
+    // 實體連線與其借出狀態
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long lastReturnedMillis = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new LeaseHandler(this));
+        }
+    }
+
+    // 單次借出的代理；close() 只會歸還一次，之後的呼叫視為已關閉
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "unwrap":
+                case "isWrapperFor":
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (returned) throw new SQLException("Connection has already been returned to the pool");
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Statement 與 DatabaseMetaData 的 getConnection() 要回傳代理，否則呼叫端關閉的會是實體連線
+            Class<?> type = method.getReturnType();
+            if (result != null && (type == Statement.class || type == PreparedStatement.class
+                    || type == CallableStatement.class || type == DatabaseMetaData.class)) {
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { type },
+                        new ChildHandler(result, proxy));
+            }
+            return result;
+        }
+    }
+
+    // 由借出的連線建立的物件：getConnection() 回傳連線代理，其餘直接轉給實體物件
+    private static final class ChildHandler implements InvocationHandler {
+        private final Object target;
+        private final Object connection;
+
+        ChildHandler(Object target, Object connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    if (method.getParameterCount() == 0) return connection;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + target;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+// 非同步載入資料，讓 JDBC 工作不在 Swing 事件分派執行緒 (EDT) 上執行
+// 結果透過 SwingUtilities.invokeLater 回到 EDT；已取消的工作不會再回呼
+// 資料庫載入與模擬/分析分開排隊：長時間的計算不會讓投手資料的載入在後面等待
+public final class DataLoader {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, daemonThreads("data-loader-"));
+    // 計算工作保留一個核心給 EDT 與遊戲迴圈
+    private static final ExecutorService COMPUTE_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), daemonThreads("data-compute-"));
+
+    private DataLoader() { }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true); // 不阻止程式結束
+            return thread;
+        };
+    }
+
+    public static <T> CompletableFuture<T> load(Supplier<T> task) {
+        return load(task, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    // 在背景執行緒執行資料庫工作，開始執行後超過 timeoutMillis 以 TimeoutException 結束
+    // 取消或逾時不中斷執行中的 JDBC 呼叫 (中斷可能讓驅動程式關閉連線)，只是不再回呼
+    public static <T> CompletableFuture<T> load(Supplier<T> task, long timeoutMillis) {
+        return submit(EXECUTOR, task, timeoutMillis, false);
+    }
+
+    public static <T> CompletableFuture<T> compute(Supplier<T> task) {
+        return compute(task, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    // 在計算執行緒執行模擬或分析；取消或逾時會中斷執行中的工作，長迴圈以中斷旗標提早結束
+    public static <T> CompletableFuture<T> compute(Supplier<T> task, long timeoutMillis) {
+        return submit(COMPUTE_EXECUTOR, task, timeoutMillis, true);
+    }
+
+    // 逾時從工作真正開始執行時才起算，排隊等待的時間不算；排隊時已取消的工作不會執行
+    private static <T> CompletableFuture<T> submit(ExecutorService executor, Supplier<T> task, long timeoutMillis,
+                                                   boolean interruptOnCancel) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            if (future.isDone()) return;
+            future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        if (interruptOnCancel) {
+            future.whenComplete((value, error) -> {
+                if (error != null) running.cancel(true);
+            });
+        }
+        return future;
+    }
+
+    // 完成後在 EDT 上回呼；future 被取消 (例如使用者已離開畫面) 時不做任何事
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (future.isCancelled()) return;
+            if (error == null) {
+                onSuccess.accept(value);
+            } else {
+                onFailure.accept(unwrap(error));
+            }
+        }));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
\ No newline at end of file
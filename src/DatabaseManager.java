@@ -1,4 +1,8 @@
+import data.Arsenal;
 import data.Pitcher;
+import data.PitcherCatalog;
+import data.PitcherFilter;
+import data.PitcherSearchIndex;
 import data.BallType;
 import data.TrajectoryData;
 import java.sql.*;
@@ -6,11 +10,23 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class DatabaseManager {
-    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/BASEBALLJAVAGAME?useSSL=false&serverTimezone=UTC";
+public class DatabaseManager implements PitcherStore {
+    // 開啟伺服器端 PreparedStatement 與其快取，搭配連線池讓相同 SQL 不必每次重新解析
+    // rewriteBatchedStatements 讓批次 INSERT 合併成多列的單一語句，匯入時只需少數幾次往返
+    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/BASEBALLJAVAGAME?useSSL=false&serverTimezone=UTC"
+            + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=64&prepStmtCacheSqlLimit=2048"
+            + "&rewriteBatchedStatements=true";
     private static final String DB_USER = "root"; // 替換成你的 MySQL 用戶名
     private static final String DB_PASSWORD = "0000"; // 替換成你的 MySQL 密碼
+    private static final int POOL_SIZE = 4;
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    // 連到同一個資料庫的 DatabaseManager 實例共用同一個連線池 (依 JDBC URL)，切換畫面不需要重新連線與驗證
+    // 每個連線池只在建立時註冊一次關閉用的 shutdown hook
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final ConnectionPool POOL = sharedPool(JDBC_URL, DB_USER, DB_PASSWORD);
 
     // 載入 JDBC 驅動
     static {
@@ -22,14 +38,47 @@ public class DatabaseManager {
         }
     }
 
+    private final ConnectionPool pool;
+    private final String description;
+
+    public DatabaseManager() {
+        this.pool = POOL;
+        this.description = "mysql";
+    }
+
+    // 連到其他 JDBC 資料庫 (例如內嵌資料庫)，同一個 URL 共用一個連線池
+    protected DatabaseManager(String url, String user, String password, String description) {
+        this.pool = sharedPool(url, user, password);
+        this.description = description;
+    }
+
+    private static ConnectionPool sharedPool(String url, String user, String password) {
+        return POOLS.computeIfAbsent(url, key -> {
+            ConnectionPool created = new ConnectionPool(key, user, password, POOL_SIZE);
+            Runtime.getRuntime().addShutdownHook(new Thread(created::close, "db-pool-shutdown"));
+            return created;
+        });
+    }
+
+    // 從連線池借出連線，close() 時歸還
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASSWORD);
+        return pool.borrow();
+    }
+
+    @Override
+    public String describe() {
+        return description;
+    }
+
+    public static ConnectionPool getPool() {
+        return POOL;
     }
 
     public List<Pitcher> getAllPitchers() {
         List<Pitcher> pitchers = new ArrayList<>();
         String sql = "SELECT PID, TID, PNAME, YEAR, LR, STUFF, VELOCITY, PTYPE FROM PITCHER";
-        try (Connection conn = getConnection();
+        try (GameMetrics.QueryTimer timer = GameMetrics.query("getAllPitchers");
+             Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
@@ -44,6 +93,7 @@ public class DatabaseManager {
                     rs.getInt("PTYPE")
                 ));
             }
+            timer.rows(pitchers.size());
         } catch (SQLException e) {
             System.err.println("Error fetching pitchers: " + e.getMessage());
             e.printStackTrace();
@@ -52,12 +102,29 @@ public class DatabaseManager {
     }
 
     public Map<String, TrajectoryData> getPitchDataForPitcher(int pitcherId) {
+        try {
+            return queryPitchData(pitcherId);
+        } catch (SQLException e) {
+            System.err.println("Error fetching pitch data for pitcher " + pitcherId + ": " + e.getMessage());
+            e.printStackTrace();
+            return new HashMap<>();
+        }
+    }
+
+    // 單一投手的球種組合，不需要載入整份快照 (選擇畫面的隧道效應分析)
+    @Override
+    public Arsenal loadArsenal(int pitcherId) throws SQLException {
+        return Arsenal.of(queryPitchData(pitcherId));
+    }
+
+    private Map<String, TrajectoryData> queryPitchData(int pitcherId) throws SQLException {
         Map<String, TrajectoryData> pitcherPitchData = new HashMap<>();
         // 查詢 TRAJECTORY 和 BALLTYPE 表格
         String sql = "SELECT T.PID, T.BID, T.USEP, T.HMOV, T.VMOV, T.REX, T.REY, T.SPEED, B.BNAME " +
                      "FROM TRAJECTORY T JOIN BALLTYPE B ON T.BID = B.BID " +
                      "WHERE T.PID = ?";
-        try (Connection conn = getConnection();
+        try (GameMetrics.QueryTimer timer = GameMetrics.query("getPitchDataForPitcher");
+             Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, pitcherId);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -76,10 +143,173 @@ public class DatabaseManager {
                     pitcherPitchData.put(bname, data);
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching pitch data for pitcher " + pitcherId + ": " + e.getMessage());
-            e.printStackTrace();
+            timer.rows(pitcherPitchData.size());
         }
         return pitcherPitchData;
     }
+
+    // 依 PID 的 keyset 分頁：回傳 PID > afterPid 的下一頁，篩選條件走 (TID, PID)、(LR, PID)、(YEAR, PID) 索引
+    // 不使用 OFFSET，任何一頁的成本都只與頁面大小有關
+    @Override
+    public List<Pitcher> getPitcherPage(PitcherFilter filter, int afterPid, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT PID, TID, PNAME, YEAR, LR, STUFF, VELOCITY, PTYPE FROM PITCHER WHERE PID > ?");
+        if (filter.getTid() != null) sql.append(" AND TID = ?");
+        if (filter.getLr() != null) sql.append(" AND LR = ?");
+        if (filter.getYear() != null) sql.append(" AND YEAR = ?");
+        sql.append(" ORDER BY PID LIMIT ?");
+        List<Pitcher> page = new ArrayList<>(limit);
+        try (GameMetrics.QueryTimer timer = GameMetrics.query("getPitcherPage");
+             Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int i = 1;
+            pstmt.setInt(i++, afterPid);
+            if (filter.getTid() != null) pstmt.setInt(i++, filter.getTid());
+            if (filter.getLr() != null) pstmt.setString(i++, filter.getLr());
+            if (filter.getYear() != null) pstmt.setInt(i++, filter.getYear());
+            pstmt.setInt(i, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(readPitcher(rs));
+                }
+            }
+            timer.rows(page.size());
+        }
+        return page;
+    }
+
+    // 名稱搜尋索引的資料：整張 PITCHER 表依 PID 排序，不含球種數據
+    @Override
+    public PitcherSearchIndex loadPitcherIndex() throws SQLException {
+        String sql = "SELECT PID, TID, PNAME, YEAR, LR, STUFF, VELOCITY, PTYPE FROM PITCHER ORDER BY PID";
+        PitcherSearchIndex.Builder builder = new PitcherSearchIndex.Builder();
+        try (GameMetrics.QueryTimer timer = GameMetrics.query("loadPitcherIndex");
+             Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) {
+                builder.add(readPitcher(rs));
+                rows++;
+            }
+            timer.rows(rows);
+        }
+        return builder.build();
+    }
+
+    private static Pitcher readPitcher(ResultSet rs) throws SQLException {
+        return new Pitcher(
+            rs.getInt("PID"),
+            rs.getInt("TID"),
+            rs.getString("PNAME"),
+            rs.getInt("YEAR"),
+            rs.getString("LR"),
+            rs.getInt("STUFF"),
+            rs.getInt("VELOCITY"),
+            rs.getInt("PTYPE")
+        );
+    }
+
+    // 以單一查詢載入所有投手、球種與軌跡數據，建立不可變的快照
+    // 與其他查詢不同，失敗時拋出例外，讓呼叫端保留舊的快照
+    @Override
+    public PitcherCatalog loadCatalog() throws SQLException {
+        String sql = "SELECT P.PID, P.TID, P.PNAME, P.YEAR, P.LR, P.STUFF, P.VELOCITY, P.PTYPE, " +
+                     "T.BID, T.USEP, T.HMOV, T.VMOV, T.REX, T.REY, T.SPEED, B.BNAME " +
+                     "FROM PITCHER P " +
+                     "LEFT JOIN TRAJECTORY T ON P.PID = T.PID " +
+                     "LEFT JOIN BALLTYPE B ON T.BID = B.BID " +
+                     "ORDER BY P.PID, T.BID";
+        PitcherCatalog.Builder builder = new PitcherCatalog.Builder();
+        try (GameMetrics.QueryTimer timer = GameMetrics.query("loadCatalog");
+             Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+                int pid = rs.getInt("PID");
+                builder.addPitcher(new Pitcher(
+                    pid,
+                    rs.getInt("TID"),
+                    rs.getString("PNAME"),
+                    rs.getInt("YEAR"),
+                    rs.getString("LR"),
+                    rs.getInt("STUFF"),
+                    rs.getInt("VELOCITY"),
+                    rs.getInt("PTYPE")
+                ));
+                int bid = rs.getInt("BID");
+                if (rs.wasNull()) continue; // 沒有任何球種的投手
+                String bname = rs.getString("BNAME");
+                if (bname != null) {
+                    builder.addBallType(new BallType(bid, bname));
+                }
+                builder.addTrajectory(new TrajectoryData(
+                    pid,
+                    bid,
+                    rs.getDouble("USEP"),
+                    rs.getDouble("HMOV"),
+                    rs.getDouble("VMOV"),
+                    rs.getDouble("REX"),
+                    rs.getDouble("REY"),
+                    rs.getDouble("SPEED")
+                ));
+            }
+            timer.rows(rows);
+        }
+        return builder.build();
+    }
+
+    // 匯入彙總後的數據：PITCHER 與 TRAJECTORY 以 JDBC 批次 upsert，整批在同一個交易中完成
+    // 已存在的投手只更新姓名與投球手，保留手動設定的能力值；已存在的球種數據整列覆寫
+    public void upsertPitchData(List<Pitcher> pitchers, List<TrajectoryData> trajectories) throws SQLException {
+        String pitcherSql = "INSERT INTO PITCHER (PID, TID, PNAME, YEAR, LR, STUFF, VELOCITY, PTYPE) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                            "ON DUPLICATE KEY UPDATE PNAME = VALUES(PNAME), LR = VALUES(LR)";
+        String trajectorySql = "INSERT INTO TRAJECTORY (PID, BID, USEP, HMOV, VMOV, REX, REY, SPEED) " +
+                               "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                               "ON DUPLICATE KEY UPDATE USEP = VALUES(USEP), HMOV = VALUES(HMOV), VMOV = VALUES(VMOV), " +
+                               "REX = VALUES(REX), REY = VALUES(REY), SPEED = VALUES(SPEED)";
+        try (GameMetrics.QueryTimer timer = GameMetrics.query("upsertPitchData");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pitcherStmt = conn.prepareStatement(pitcherSql);
+                 PreparedStatement trajectoryStmt = conn.prepareStatement(trajectorySql)) {
+                int pending = 0;
+                for (Pitcher p : pitchers) {
+                    pitcherStmt.setInt(1, p.getPid());
+                    pitcherStmt.setInt(2, p.getTid());
+                    pitcherStmt.setString(3, p.getPname());
+                    pitcherStmt.setInt(4, p.getYear());
+                    pitcherStmt.setString(5, p.getLr());
+                    pitcherStmt.setInt(6, p.getStuff());
+                    pitcherStmt.setInt(7, p.getVelocity());
+                    pitcherStmt.setInt(8, p.getPtype());
+                    pitcherStmt.addBatch();
+                    if (++pending % UPSERT_BATCH_SIZE == 0) pitcherStmt.executeBatch();
+                }
+                pitcherStmt.executeBatch();
+
+                pending = 0;
+                for (TrajectoryData t : trajectories) {
+                    trajectoryStmt.setInt(1, t.getPid());
+                    trajectoryStmt.setInt(2, t.getBid());
+                    trajectoryStmt.setDouble(3, t.getUsep());
+                    trajectoryStmt.setDouble(4, t.getHmov());
+                    trajectoryStmt.setDouble(5, t.getVmov());
+                    trajectoryStmt.setDouble(6, t.getRex());
+                    trajectoryStmt.setDouble(7, t.getRey());
+                    trajectoryStmt.setDouble(8, t.getSpeed());
+                    trajectoryStmt.addBatch();
+                    if (++pending % UPSERT_BATCH_SIZE == 0) trajectoryStmt.executeBatch();
+                }
+                trajectoryStmt.executeBatch();
+                conn.commit();
+                timer.rows(pitchers.size() + trajectories.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// 資料庫查詢的 JFR 事件，持續時間就是查詢 (含借出與歸還連線) 的時間
+@Name("baseballGame.DatabaseQuery")
+@Label("Database Query")
+@Category("Baseball Game")
+class DatabaseQueryEvent extends jdk.jfr.Event {
+    @Label("Query")
+    String query;
+
+    @Label("Rows")
+    long rows;
+}
@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 內嵌在程式中的 H2 資料庫 (MySQL 相容模式)，資料存在本機檔案，不需要 MySQL 伺服器
+// 使用 lib/ 中的 h2 jar；第一次連線時若沒有 PITCHER 表，執行 CREATETABLE.sql 建立資料表與初始數據
+// 查詢與匯入都沿用 DatabaseManager 的 SQL
+public class EmbeddedDatabase extends DatabaseManager {
+    // YEAR 在 H2 是保留字，這個資料庫的欄位名稱需要 NON_KEYWORDS
+    public static final String DEFAULT_URL = "jdbc:h2:./baseball-data/baseball;MODE=MySQL;DATABASE_TO_UPPER=TRUE;NON_KEYWORDS=YEAR";
+    public static final String DEFAULT_SCHEMA = "src/CREATETABLE.sql";
+
+    private final Path schema;
+    private volatile boolean initialized;
+
+    public EmbeddedDatabase(String url, Path schema) {
+        super(url, "sa", "", "embedded " + url);
+        this.schema = schema;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection conn = super.getConnection();
+        if (!initialized) {
+            try {
+                ensureSchema(conn);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    private synchronized void ensureSchema(Connection conn) throws SQLException {
+        if (initialized) return;
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, "PITCHER", null)) {
+            if (!rs.next()) {
+                createSchema(conn);
+            }
+        }
+        initialized = true;
+    }
+
+    private void createSchema(Connection conn) throws SQLException {
+        List<String> statements;
+        try {
+            statements = splitStatements(new String(Files.readAllBytes(schema), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SQLException("Cannot read schema " + schema + ": " + e.getMessage(), e);
+        }
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                String upper = sql.toUpperCase(Locale.ROOT);
+                // 資料庫已由 JDBC URL 決定
+                if (upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) continue;
+                stmt.execute(sql);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        System.out.println("Created embedded database from " + schema);
+    }
+
+    // 去掉 -- 註解後以分號切開；CREATETABLE.sql 的字串常數裡沒有分號或 --
+    static List<String> splitStatements(String script) {
+        StringBuilder text = new StringBuilder(script.length());
+        for (String line : script.split("\r?\n")) {
+            int comment = line.indexOf("--");
+            text.append(comment >= 0 ? line.substring(0, comment) : line).append('\n');
+        }
+        List<String> statements = new ArrayList<>();
+        for (String sql : text.toString().split(";")) {
+            if (!sql.trim().isEmpty()) statements.add(sql.trim());
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// 每一幀一筆的 JFR 事件；沒有錄製時 shouldCommit() 為 false，幾乎沒有成本
+@Name("baseballGame.Frame")
+@Label("Frame")
+@Category("Baseball Game")
+@Description("One game frame: interval since the previous frame, physics step, paint and bytes allocated")
+@StackTrace(false)
+class FrameEvent extends jdk.jfr.Event {
+    @Label("Interval")
+    @Timespan
+    long interval;
+
+    @Label("Physics")
+    @Timespan
+    long physics;
+
+    @Label("Paint")
+    @Timespan
+    long paint;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+}
@@ -0,0 +1,46 @@
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+// 主動渲染的畫布：由遊戲迴圈執行緒透過 BufferStrategy 直接繪製並翻頁，不經過 repaint()
+public class GameCanvas extends Canvas {
+    private final Consumer<Graphics2D> painter;
+    private BufferStrategy strategy;
+
+    public GameCanvas(Consumer<Graphics2D> painter) {
+        this.painter = painter;
+        setIgnoreRepaint(true); // 由遊戲迴圈負責繪製
+        setFocusable(false); // 讓鍵盤焦點留在 GamePanel，保留原本的按鍵綁定
+    }
+
+    @Override
+    public void removeNotify() {
+        synchronized (this) {
+            strategy = null;
+        }
+        super.removeNotify();
+    }
+
+    // 在遊戲迴圈執行緒上呼叫；畫布尚未顯示時直接略過
+    public synchronized void renderFrame() {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) return;
+        if (strategy == null) {
+            createBufferStrategy(2);
+            strategy = getBufferStrategy();
+        }
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    painter.accept(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
\ No newline at end of file
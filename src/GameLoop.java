@@ -0,0 +1,158 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// 主動渲染用的遊戲迴圈，在專屬執行緒上以高解析度時鐘推進
+// 每一圈先 update (物理由 PitchSimulator 以固定步長處理) 再 render，
+// targetFps 為 0 時不限制幀率；否則以「睡到期限前一點，再自旋等待」的方式控制節奏，吸收 sleep 的誤差
+public class GameLoop implements Runnable {
+    public static final int UNLIMITED_FPS = 0;
+    private static final long SPIN_THRESHOLD_NANOS = 2_000_000; // 最後 2ms 改用自旋等待
+    private static final double MAX_FRAME_SECONDS = 0.05;
+
+    public interface Callbacks {
+        // frameNanos 是這一幀開始的 System.nanoTime()，與 frameSeconds 對應的時間點
+        void update(double frameSeconds, long frameNanos);
+        void render();
+    }
+
+    // 目前仍在執行的迴圈執行緒數 (所有 GameLoop)，畫面切換後的洩漏檢查使用
+    private static final AtomicInteger activeLoops = new AtomicInteger();
+
+    private final Callbacks callbacks;
+    private final int targetFps;
+    private final String threadName;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    // 統計
+    private volatile long framesRendered;
+    private volatile long droppedFrames;
+    private volatile double measuredFps;
+
+    public GameLoop(Callbacks callbacks, int targetFps, String threadName) {
+        if (targetFps < 0) {
+            throw new IllegalArgumentException("targetFps must not be negative: " + targetFps);
+        }
+        this.callbacks = callbacks;
+        this.targetFps = targetFps;
+        this.threadName = threadName;
+    }
+
+    // 從系統屬性 game.fps 讀取目標幀率 (60/120/144/0 = unlimited)，預設 60
+    public static int targetFpsFromSystemProperty() {
+        String value = System.getProperty("game.fps", "60").trim();
+        if (value.equalsIgnoreCase("unlimited")) return UNLIMITED_FPS;
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid game.fps value: " + value + ". Using 60.");
+            return 60;
+        }
+    }
+
+    // 系統屬性 game.render=active 時使用主動渲染，否則使用 Swing Timer
+    public static boolean isActiveRenderingRequested() {
+        return "active".equalsIgnoreCase(System.getProperty("game.render", "swing").trim());
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, threadName);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY + 1);
+        thread.start();
+    }
+
+    // 停止迴圈並等待執行緒結束
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = thread;
+            thread = null;
+        }
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        activeLoops.incrementAndGet();
+        try {
+            runFrames();
+        } finally {
+            activeLoops.decrementAndGet();
+        }
+    }
+
+    private void runFrames() {
+        long periodNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+        long lastTime = System.nanoTime();
+        long nextFrame = lastTime;
+        long fpsWindowStart = lastTime;
+        long fpsWindowFrames = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            double frameSeconds = Math.min((now - lastTime) / 1_000_000_000.0, MAX_FRAME_SECONDS);
+            lastTime = now;
+
+            try {
+                callbacks.update(frameSeconds, now);
+                callbacks.render();
+            } catch (RuntimeException e) {
+                System.err.println("Game loop error: " + e);
+                e.printStackTrace();
+            }
+            framesRendered++;
+            fpsWindowFrames++;
+
+            if (now - fpsWindowStart >= 1_000_000_000L) {
+                measuredFps = fpsWindowFrames * 1_000_000_000.0 / (now - fpsWindowStart);
+                fpsWindowStart = now;
+                fpsWindowFrames = 0;
+            }
+
+            if (periodNanos > 0) {
+                nextFrame += periodNanos;
+                long afterRender = System.nanoTime();
+                if (afterRender - nextFrame > periodNanos) {
+                    // 落後超過一幀：放棄追趕，重新對齊節奏
+                    long dropped = (afterRender - nextFrame) / periodNanos;
+                    droppedFrames += dropped;
+                    GameMetrics.get().addDroppedFrames(dropped);
+                    nextFrame = afterRender;
+                } else {
+                    waitUntil(nextFrame);
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public static int getActiveLoops() { return activeLoops.get(); }
+
+    public boolean isRunning() { return running; }
+    public int getTargetFps() { return targetFps; }
+    public long getFramesRendered() { return framesRendered; }
+    public long getDroppedFrames() { return droppedFrames; }
+    public double getMeasuredFps() { return measuredFps; }
+}
\ No newline at end of file
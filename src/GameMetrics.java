@@ -0,0 +1,173 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+import jdk.jfr.EventType;
+
+// 遊戲執行期的量測：幀間隔、物理步進、繪製、EDT 排隊延遲、掉幀、每幀配置量、揮棒輸入延遲與資料庫查詢延遲
+// 全部記錄在無鎖的 LatencyHistogram (任何執行緒都可以呼叫)，以 JMX (baseballGame:type=GameMetrics) 與 JFR 事件對外提供
+public final class GameMetrics implements GameMetricsMBean {
+    private static final GameMetrics INSTANCE = new GameMetrics();
+    // 每幀查詢配置量，取得一次即可；JVM 不支援時為 null
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+    // 每幀只在 JFR 正在錄製這個事件時才建立事件物件
+    private static final EventType FRAME_EVENT_TYPE = EventType.getEventType(FrameEvent.class);
+    private static final long EDT_PROBE_PERIOD_MILLIS = 100;
+
+    private final LatencyHistogram frameTime = new LatencyHistogram();  // ns
+    private final LatencyHistogram physics = new LatencyHistogram();    // ns
+    private final LatencyHistogram paint = new LatencyHistogram();      // ns
+    private final LatencyHistogram edtDelay = new LatencyHistogram();   // ns
+    private final LatencyHistogram allocation = new LatencyHistogram(); // bytes / 幀
+    private final LatencyHistogram dbQuery = new LatencyHistogram();    // ns
+    private final LatencyHistogram inputLatency = new LatencyHistogram(); // ns，揮棒按鍵到判定
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    // EDT 排隊延遲：定期 invokeLater 一個時間戳記，在 EDT 上執行時的時間差
+    private ScheduledExecutorService probeExecutor;
+    private ScheduledFuture<?> probe;
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("baseballGame:type=GameMetrics"));
+        } catch (Exception e) {
+            System.err.println("Cannot register GameMetrics MBean: " + e);
+        }
+    }
+
+    private GameMetrics() { }
+
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    // 一幀結束時呼叫；allocatedBytes 小於 0 表示 JVM 不支援執行緒配置量
+    public void recordFrame(long intervalNanos, long physicsNanos, long paintNanos, long allocatedBytes) {
+        frameTime.record(intervalNanos);
+        physics.record(physicsNanos);
+        if (allocatedBytes >= 0) allocation.record(allocatedBytes);
+        if (!FRAME_EVENT_TYPE.isEnabled()) return;
+        FrameEvent event = new FrameEvent();
+        if (event.shouldCommit()) {
+            event.interval = intervalNanos;
+            event.physics = physicsNanos;
+            event.paint = paintNanos;
+            event.allocated = allocatedBytes;
+            event.commit();
+        }
+    }
+
+    public void recordPaint(long nanos) { paint.record(nanos); }
+    public void recordInputLatency(long nanos) { inputLatency.record(nanos); }
+
+    public void addDroppedFrames(long frames) {
+        if (frames > 0) droppedFrames.addAndGet(frames);
+    }
+
+    // 以 try-with-resources 包住一次查詢
+    public static QueryTimer query(String name) {
+        return new QueryTimer(name);
+    }
+
+    // 目前執行緒累計配置的位元組；不支援時回傳 -1
+    public static long allocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    // 遊戲畫面顯示期間量測 EDT 延遲
+    public synchronized void startEdtProbe() {
+        if (probe != null) return;
+        if (probeExecutor == null) {
+            probeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "edt-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        probe = probeExecutor.scheduleAtFixedRate(() -> {
+            long posted = System.nanoTime();
+            SwingUtilities.invokeLater(() -> edtDelay.record(System.nanoTime() - posted));
+        }, EDT_PROBE_PERIOD_MILLIS, EDT_PROBE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopEdtProbe() {
+        if (probe != null) {
+            probe.cancel(false);
+            probe = null;
+        }
+    }
+
+    public LatencyHistogram getFrameTime() { return frameTime; }
+    public LatencyHistogram getPhysics() { return physics; }
+    public LatencyHistogram getPaint() { return paint; }
+    public LatencyHistogram getEdtDelay() { return edtDelay; }
+    public LatencyHistogram getAllocation() { return allocation; }
+    public LatencyHistogram getDbQuery() { return dbQuery; }
+    public LatencyHistogram getInputLatency() { return inputLatency; }
+
+    @Override public long getFrameCount() { return frameTime.getCount(); }
+    @Override public double getFrameTimeP50Millis() { return millis(frameTime.snapshot().getPercentile(50)); }
+    @Override public double getFrameTimeP99Millis() { return millis(frameTime.snapshot().getPercentile(99)); }
+    @Override public double getFrameTimeMaxMillis() { return millis(frameTime.snapshot().getMax()); }
+    @Override public double getPhysicsP99Millis() { return millis(physics.snapshot().getPercentile(99)); }
+    @Override public double getPaintP50Millis() { return millis(paint.snapshot().getPercentile(50)); }
+    @Override public double getPaintP99Millis() { return millis(paint.snapshot().getPercentile(99)); }
+    @Override public double getEdtDelayP99Millis() { return millis(edtDelay.snapshot().getPercentile(99)); }
+    @Override public long getDroppedFrames() { return droppedFrames.get(); }
+    @Override public long getAllocatedBytesPerFrameP50() { return allocation.snapshot().getPercentile(50); }
+    @Override public long getAllocatedBytesPerFrameP99() { return allocation.snapshot().getPercentile(99); }
+    @Override public long getDbQueryCount() { return dbQuery.getCount(); }
+    @Override public double getDbQueryP50Millis() { return millis(dbQuery.snapshot().getPercentile(50)); }
+    @Override public double getDbQueryP99Millis() { return millis(dbQuery.snapshot().getPercentile(99)); }
+    @Override public long getInputLatencyCount() { return inputLatency.getCount(); }
+    @Override public double getInputLatencyP50Millis() { return millis(inputLatency.snapshot().getPercentile(50)); }
+    @Override public double getInputLatencyP99Millis() { return millis(inputLatency.snapshot().getPercentile(99)); }
+
+    @Override
+    public void reset() {
+        frameTime.reset();
+        physics.reset();
+        paint.reset();
+        edtDelay.reset();
+        allocation.reset();
+        dbQuery.reset();
+        inputLatency.reset();
+        droppedFrames.set(0);
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // 一次資料庫查詢的計時；close() 時記錄到直方圖並送出 JFR 事件
+    public static final class QueryTimer implements AutoCloseable {
+        private final long start = System.nanoTime();
+        private final DatabaseQueryEvent event = new DatabaseQueryEvent();
+
+        private QueryTimer(String name) {
+            event.query = name;
+            event.begin();
+        }
+
+        // 查詢讀取或寫入的列數，一併記在 JFR 事件上
+        public void rows(long n) {
+            event.rows = n;
+        }
+
+        @Override
+        public void close() {
+            INSTANCE.dbQuery.record(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) event.commit();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// GameMetrics 的 JMX 介面 (baseballGame:type=GameMetrics)；時間為毫秒，自啟動或上次 reset 起累計
+public interface GameMetricsMBean {
+    long getFrameCount();
+    double getFrameTimeP50Millis();
+    double getFrameTimeP99Millis();
+    double getFrameTimeMaxMillis();
+    double getPhysicsP99Millis();
+    double getPaintP50Millis();
+    double getPaintP99Millis();
+    double getEdtDelayP99Millis();
+    long getDroppedFrames();
+    long getAllocatedBytesPerFrameP50();
+    long getAllocatedBytesPerFrameP99();
+    long getDbQueryCount();
+    double getDbQueryP50Millis();
+    double getDbQueryP99Millis();
+    long getInputLatencyCount();
+    double getInputLatencyP50Millis();
+    double getInputLatencyP99Millis();
+
+    void reset();
+}
@@ -2,41 +2,93 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
-import java.io.File;
-import java.io.IOException;
 import java.util.Random;
+import java.util.function.LongSupplier;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Arrays; // 新增導入
+import java.util.concurrent.CompletableFuture;
 
+import data.Arsenal;
 import data.Pitcher; // 導入 Pitcher 類別
+import data.PitcherCatalog;
 import data.TrajectoryData; // 導入 TrajectoryData 類別
+import sim.AeroModel;
+import sim.AliasTable;
+import sim.AnalyticTrajectory;
+import sim.Camera;
+import sim.CommandModel;
+import sim.Heatmap;
+import sim.HeatmapExport;
+import sim.MonteCarloSimulator;
+import sim.PhysicsModel;
+import sim.PitchSimulator;
+import sim.PitchTargets;
+import sim.StrikeProbabilityGrid;
+import sim.TrajectoryCache;
 
-public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
+public class GamePanel extends JPanel implements Screen { // 將 MLBsim 改名為 GamePanel
     private Timer timer;
     private JFrame mainFrame;
 
+    // 主動渲染模式 (game.render=active)：專屬執行緒的遊戲迴圈與 BufferStrategy 畫布
+    private GameLoop gameLoop;
+    private GameCanvas gameCanvas;
+    // 遊戲狀態鎖；主動渲染時遊戲迴圈與 EDT 上的輸入共用狀態
+    private final Object stateLock = new Object();
+
     // 物理常數
-    private static final double PITCHER_MOUND_DISTANCE_FT = 60.5;
-    private static final double HOME_PLATE_FRONT_FT = 1.417;
+    private static final double PITCHER_MOUND_DISTANCE_FT = PitchSimulator.PITCHER_MOUND_DISTANCE_FT;
+    private static final double HOME_PLATE_FRONT_FT = PitchSimulator.HOME_PLATE_FRONT_FT;
+
+    // 物理引擎，面板只負責讀取其狀態並繪製
+    private final PitchSimulator simulator = new PitchSimulator();
+    // 瞄準軌跡快取，所有面板共用
+    private static final TrajectoryCache trajectoryCache = new TrajectoryCache(1024);
+    // 飛行模型 (game.physics=analytic|aero)；AERO 時每次換投手重新校正
+    private static final PhysicsModel PHYSICS = PhysicsModel.fromSystemProperty("game.physics");
+    private AeroModel aeroModel;
 
-    // 球的狀態變數
+    static {
+        // 投手數據重新載入後，舊的軌跡不再有效
+        PitcherRepository.getInstance().addInvalidationListener(trajectoryCache::clear);
+    }
+
+    // 球的渲染位置 (由物理引擎插值得到)
     private double x_ft, y_ft, z_ft;
-    private double vx, vy, vz;
-    private double ax, ay;
 
     // 時間管理變數
+    // 遊戲狀態使用的時鐘 (奈秒)；soak 測試換成虛擬時鐘，量測耗時仍使用 System.nanoTime()
+    private LongSupplier clock = System::nanoTime;
     private long lastFrameTime;
+    // 物理引擎時鐘最後一次推進時對應的時鐘時間，用來換算按鍵當下的球位置
+    private long simClockNanos;
+
+    // 揮棒按鍵的高解析度時間戳記 (0 表示沒有待處理的按鍵)
+    private volatile long swingKeyNanos = 0;
+    private final InputLatencyStats inputLatency = new InputLatencyStats();
+    private String hudLatency = null;
+    private final KeyEventDispatcher swingKeyStamper = e -> {
+        if (e.getID() == KeyEvent.KEY_PRESSED && e.getKeyCode() == KeyEvent.VK_SPACE) {
+            // 在按鍵分派前記錄時間，並扣除事件在佇列中等待的時間 (getWhen 只有毫秒精度)
+            long queuedMillis = Math.max(0, System.currentTimeMillis() - e.getWhen());
+            swingKeyNanos = System.nanoTime() - queuedMillis * 1_000_000L;
+        }
+        return false; // 不攔截，交給原本的按鍵綁定處理
+    };
 
     // 遊戲狀態變數
-    private String pitchType = "none";
+    private int pitchSlot = -1; // 目前球種在 arsenal 中的槽位，-1 表示尚未投球
     private boolean isPitching = false;
     private boolean ballReachedCatcher = false;
     private boolean isPaused = false;
     private boolean isHittingMode = false;
-    private int countdown = 0;
+    private int countdown = 0; // 以 60Hz 的幀數計算
+    private double countdownAccumulator = 0;
+    private static final double COUNTDOWN_TICK_SECONDS = 1.0 / 60.0;
     private String hitResult = null;
+    private boolean lastPitchStrike = false;
     private boolean swingAttempted = false;
     
     // 手動瞄準相關變數
@@ -44,8 +96,23 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
     private double aimY_ft = 2.5;
     private Point mousePos;
 
+    // 投球模式的控球誤差與好球機率疊圖；各球種的機率表在背景計算，完成一個就可以顯示一個
+    private CommandModel commandModel = CommandModel.forPitcher(null);
+    private CommandOverlay[] commandOverlays = new CommandOverlay[0];
+    private int previewSlot = 0; // 疊圖顯示的球種：上一球投出的球種
+    private boolean showHeatOverlay; // H 鍵切換；投球模式預設顯示，打擊模式預設隱藏
+
+    // 打擊模式的落點熱圖：第一次開啟時在背景模擬目前球種組合
+    private static final long HEATMAP_PITCHES = 200_000;
+    private static final long HEATMAP_SEED = 20240601L;
+    private static final int HEATMAP_CELLS_PER_FOOT = 12;
+    private LocationOverlay locationOverlay;
+    private CompletableFuture<LocationOverlay> pendingHeatmap;
+    private int strikePercent = -1;
+    private String hudStrikeChance;
+
     // 軌跡起點
-    private double startX_ft, startY_ft, startZ_ft;
+    private double startZ_ft = PITCHER_MOUND_DISTANCE_FT;
     private double endZ_ft = HOME_PLATE_FRONT_FT;
 
     // 顯示與攝影機參數
@@ -56,78 +123,318 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
     private final double cameraY_ft = 2.5;
     private final double cameraZ_ft = -4.0;
     private final double focalLength = 700;
+    private final Camera camera = new Camera(vanishingPointX, vanishingPointY, cameraY_ft, cameraZ_ft, focalLength);
+
+    // 繪製用的共用物件，避免每幀配置
+    private static final Color SKY_COLOR = new Color(135, 206, 235);
+    private static final Color DIRT_COLOR = new Color(188, 143, 143); // 土色
+    private static final Color MOUND_COLOR = new Color(160, 82, 45); // 深土色
+    private static final Color STRIKE_ZONE_COLOR = new Color(255, 255, 255, 100); // 半透明白色
+    private static final Color HUD_BACKGROUND_COLOR = new Color(0, 0, 0, 150); // 半透明黑色背景
+    private static final Color RETICLE_COLOR = new Color(255, 0, 0, 150); // 半透明紅色
+    private static final Color SPREAD_COLOR = new Color(255, 255, 0, 140); // 半透明黃色
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font HELP_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font PITCH_LIST_FONT = new Font("Arial", Font.PLAIN, 11);
+    private static final Font COUNTDOWN_FONT = new Font("Arial", Font.BOLD, 24);
+    private static final Font HIT_RESULT_FONT = new Font("Arial", Font.BOLD, 36);
+    private static final Font PAUSED_FONT = new Font("Arial", Font.BOLD, 48);
+    private static final BasicStroke STRIKE_ZONE_STROKE = new BasicStroke(3);
+    private static final BasicStroke RETICLE_STROKE = new BasicStroke(2);
+    private static final BasicStroke SPREAD_STROKE = new BasicStroke(1);
+    private static final String[] COUNTDOWN_TEXT = { "Pitch in: 1", "Pitch in: 2", "Pitch in: 3", "Pitch in: 4" };
+
+    // 效能量測 (GameMetrics) 與 F3 切換的效能疊圖
+    private static final long TIMER_PERIOD_NANOS = 16_000_000L;
+    private static final long PROFILER_REFRESH_NANOS = 500_000_000L;
+    private static final Font PROFILER_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final int PROFILER_WIDTH = 340, PROFILER_HEIGHT = 100;
+    private static final int PROFILER_LEFT = 1000 - PROFILER_WIDTH - 10, PROFILER_TOP = 700 - PROFILER_HEIGHT - 40;
+    private final GameMetrics metrics = GameMetrics.get();
+    private volatile boolean showProfiler;
+    private long lastRecordedFrameNanos;
+    private long lastAllocatedBytes = -1;
+    private volatile long lastPaintNanos;
+    private long profilerUpdatedNanos;
+    private LatencyHistogram.Snapshot[] profilerBase;
+    private volatile String[] profilerText;
+
+    // 可重複使用的投影緩衝區 (x, y)
+    private final int[] projected = new int[2];
+
+    // Swing Timer 模式的重繪區域追蹤：上一次繪製的範圍與這一幀累積的重繪區域
+    private static final int HUD_BAND_HEIGHT = 175; // HUD 面板與其下方的倒數、結果文字
+    private static final int DAMAGE_MARGIN = 3;     // 反鋸齒與線寬
+    private static final int RETICLE_SIZE = 15;
+    private final Rectangle ballBounds = new Rectangle();
+    private final Rectangle aimBounds = new Rectangle();
+    private final Rectangle scratchBounds = new Rectangle();
+    private final Rectangle damage = new Rectangle();
+    // 上一次繪製 HUD 時的內容；HUD 文字都是重建時產生的新字串，逐一比較參考即可
+    private int paintedCountdown = -1;
+    private boolean paintedPitching, paintedReachedCatcher, paintedLoading, paintedStrike, paintedHeatOverlay, paintedHittingMode;
+    private String paintedHitResult, paintedLatency, paintedTitle, paintedPitchList, paintedSpeed, paintedPitchingStatus, paintedSelectStatus;
+    private LocationOverlay paintedLocationOverlay;
+    private String[] paintedProfilerText;
+    // HUD 與效能疊圖的圖層：內容改變時才重畫，其餘的幀只貼上圖層
+    // 每次切換字型繪製文字時 Java2D 內部都會配置物件，直接畫在每一幀上無法做到不配置
+    private BufferedImage hudLayer, profilerLayer;
+    private boolean hudLayerStale = true, hudBandDamaged;
+    private String[] profilerLayerText;
+    private String measuredStrikeChance;
+    private int measuredStrikeChanceWidth;
+    private FontMetrics helpFontMetrics; // 每幀計算準星範圍時使用，第一次需要時取得
+
+    // HUD 文字快取，只在球種或投球狀態改變時重建
+    private String hudTitle = "";
+    private String hudPitchList = "";
+    private String hudSpeed = null;
+    private String hudPitchingStatus = "";
+    private String hudSelectStatus = "";
+    private String measuredHitResult;
+    private int measuredHitResultWidth;
+    private int pausedTextWidth = -1;
 
     // 其他工具
     private final Random random = new Random();
-    private BufferedImage ballImage;
+    private final double[] target = new double[2];
+    private SpriteCache ballSprites; // 共用的預先縮放球圖，null 表示圖片無法載入
+
+    // 靜態場景圖層 (天空、場地、好球帶、投手丘)，只在尺寸或攝影機改變時重建
+    private BufferedImage backgroundLayer;
 
     // 好球帶定義
-    private final double strikeZoneLeft_ft = -0.83;
-    private final double strikeZoneRight_ft = 0.83;
-    private final double strikeZoneTop_ft = 3.5;
-    private final double strikeZoneBottom_ft = 1.5;
+    private final double strikeZoneLeft_ft = PitchSimulator.STRIKE_ZONE_LEFT_FT;
+    private final double strikeZoneRight_ft = PitchSimulator.STRIKE_ZONE_RIGHT_FT;
+    private final double strikeZoneTop_ft = PitchSimulator.STRIKE_ZONE_TOP_FT;
+    private final double strikeZoneBottom_ft = PitchSimulator.STRIKE_ZONE_BOTTOM_FT;
 
     // 球種數據庫
-    private final Map<String, TrajectoryData> pitchDatabase = new HashMap<>(); // 修改類型為 TrajectoryData
-    private DatabaseManager dbManager; // 新增 DatabaseManager 實例
+    private Arsenal arsenal = Arsenal.EMPTY; // 槽位依 BID 排序，數字鍵 1-9 對應槽位 0-8
+    // 依 USEP 加權的球種抽樣表，只在球種組合改變時重建
+    private AliasTable pitchMix;
+    private final PitcherRepository repository = PitcherRepository.getInstance(); // 投手數據快取
     private Pitcher currentPitcher; // 新增變數來儲存當前投手
+    private CompletableFuture<PitcherCatalog> pendingLoad; // 進行中的非同步載入
+    private boolean isLoading = false;
+    private boolean configured = false; // 已經以某個模式與投手設定過 (可以沿用球種)
 
 
     public GamePanel(boolean hittingMode, JFrame frame, Pitcher selectedPitcher) {
-        this.isHittingMode = hittingMode;
+        this(frame);
+        configure(hittingMode, selectedPitcher);
+    }
+
+    // 建立面板但不啟動計時器；由 ScreenManager 呼叫 configure 與 start
+    public GamePanel(JFrame frame) {
         this.mainFrame = frame;
-        this.currentPitcher = selectedPitcher; // 儲存選定的投手
-        this.dbManager = new DatabaseManager(); // 初始化 DatabaseManager
-        
-        if (isHittingMode) {
-            // 打擊模式可以預設載入所有球種或者某些通用球種
-            initialize_AllPitchesDefault(); // 創建一個預設的通用球種初始化方法
-        } else if (currentPitcher != null) {
-            // 投球模式，載入選定投手的球種
-            loadPitcherPitchData(currentPitcher.getPid());
-        } else {
-            // 處理沒有選擇投手但進入投球模式的情況 (例如直接啟動遊戲就進入投球模式)
-            // 這裡可以選擇載入一個預設投手，或者回到選擇介面
-            System.err.println("Warning: Pitching mode started without selected pitcher. Loading default pitches.");
-            initialize_AllPitchesDefault();
-        }
 
         setupKeyBindings();
         
-        addMouseMotionListener(new MouseAdapter() {
+        MouseAdapter aimListener = new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                if (!isHittingMode && !isPitching) {
-                    mousePos = e.getPoint();
-                    updateAimPosition();
-                    repaint();
+                synchronized (stateLock) {
+                    if (!isHittingMode && !isPitching) {
+                        mousePos = e.getPoint();
+                        updateAimPosition(); // 重繪留給下一幀，每幀最多一次
+                    }
                 }
             }
+        };
+        addMouseMotionListener(aimListener);
+
+        // 尺寸改變時重建靜態場景
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                invalidateBackground();
+            }
         });
 
         setFocusable(true);
-        timer = new Timer(16, this::actionPerformed);
-        timer.start();
+        if (GameLoop.isActiveRenderingRequested()) {
+            createActiveRendering(aimListener);
+        } else {
+            timer = new Timer(16, this::actionPerformed);
+        }
 
-        try {
-            ballImage = ImageIO.read(new File("src/ball.png")); // 確保 ball.png 在 src 資料夾下
-        } catch (IOException e) {
-            System.err.println("Failed to load ball image: " + e.getMessage());
+        // 球停在本壘板前緣，那裡就是最大的尺寸
+        ballSprites = Assets.sprites("ball.png", calculateBallSize(endZ_ft));
+    }
+
+    // 切換模式或投手；同一位投手 (或同樣的打擊模式) 再次進入時沿用已載入的球種、疊圖與熱圖
+    public void configure(boolean hittingMode, Pitcher selectedPitcher) {
+        synchronized (stateLock) {
+            isPaused = false;
+            boolean samePitcher = configured && hittingMode == isHittingMode
+                    && (selectedPitcher == null ? currentPitcher == null
+                        : currentPitcher != null && currentPitcher.getPid() == selectedPitcher.getPid());
+            configured = true;
+            if (samePitcher && (pendingLoad != null || !arsenal.isEmpty())) {
+                resetPitch();
+                return;
+            }
+            if (pendingLoad != null) {
+                pendingLoad.cancel(true);
+                pendingLoad = null;
+            }
+            this.isHittingMode = hittingMode;
+            this.currentPitcher = selectedPitcher; // 儲存選定的投手
+            this.commandModel = CommandModel.forPitcher(selectedPitcher);
+            this.showHeatOverlay = !hittingMode;
+            this.isLoading = false;
+
+            if (isHittingMode) {
+                // 打擊模式可以預設載入所有球種或者某些通用球種
+                initialize_AllPitchesDefault(); // 創建一個預設的通用球種初始化方法
+            } else if (currentPitcher != null) {
+                // 投球模式，載入選定投手的球種
+                loadPitcherPitchData(currentPitcher.getPid());
+            } else {
+                // 處理沒有選擇投手但進入投球模式的情況 (例如直接啟動遊戲就進入投球模式)
+                // 這裡可以選擇載入一個預設投手，或者回到選擇介面
+                System.err.println("Warning: Pitching mode started without selected pitcher. Loading default pitches.");
+                initialize_AllPitchesDefault();
+            }
+
+            if (isHittingMode) countdown = 180;
+            resetPitch();
         }
-        
-        if (isHittingMode) countdown = 180;
-        resetPitch();
+    }
+
+    // 畫面顯示：啟動計時器或遊戲迴圈，開始記錄揮棒按鍵
+    @Override
+    public void start() {
+        synchronized (stateLock) {
+            lastFrameTime = clock.getAsLong(); // 隱藏期間的時間不計入第一幀
+        }
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(swingKeyStamper);
+        lastRecordedFrameNanos = 0; // 隱藏期間不算一幀
+        lastAllocatedBytes = -1;
+        metrics.startEdtProbe();
+        if (gameLoop != null) {
+            gameLoop.start();
+        } else {
+            timer.start();
+        }
+    }
+
+    // 畫面被切走：停止計時器與遊戲迴圈；背景計算繼續，結果留給下次顯示
+    @Override
+    public void pause() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        } else {
+            timer.stop();
+        }
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().removeKeyEventDispatcher(swingKeyStamper);
+        metrics.stopEdtProbe();
+    }
+
+    // 不再使用：取消背景工作並釋放圖片 (共用的球圖由 Assets 管理)
+    @Override
+    public void dispose() {
+        pause();
+        synchronized (stateLock) {
+            if (pendingLoad != null) {
+                pendingLoad.cancel(true);
+                pendingLoad = null;
+            }
+            if (pendingHeatmap != null) {
+                pendingHeatmap.cancel(true);
+                pendingHeatmap = null;
+            }
+            if (backgroundLayer != null) {
+                backgroundLayer.flush();
+                backgroundLayer = null;
+            }
+            locationOverlay = null;
+            commandOverlays = new CommandOverlay[0];
+            configured = false;
+        }
+    }
+
+    @Override
+    public boolean isLoopRunning() {
+        return gameLoop != null ? gameLoop.isRunning() : timer.isRunning();
     }
     
     // 新增方法來從資料庫載入特定投手的球種數據
+    // 快取已載入時立即完成；否則在背景查詢，面板先顯示載入中
     private void loadPitcherPitchData(int pitcherId) {
-        pitchDatabase.clear();
-        pitchDatabase.putAll(dbManager.getPitchDataForPitcher(pitcherId));
+        arsenal = Arsenal.EMPTY;
+        onArsenalChanged();
+        isLoading = true;
+        pendingLoad = repository.getCatalogAsync();
+        DataLoader.onEdt(pendingLoad, catalog -> applyPitchData(pitcherId, catalog.getArsenal(pitcherId)), error -> {
+            System.err.println("Error loading pitch data for pitcher " + pitcherId + ": " + error);
+            applyPitchData(pitcherId, Arsenal.EMPTY);
+        });
+    }
+
+    private void applyPitchData(int pitcherId, Arsenal loaded) {
+        synchronized (stateLock) {
+            applyPitchDataLocked(pitcherId, loaded);
+        }
+    }
+
+    private void applyPitchDataLocked(int pitcherId, Arsenal loaded) {
+        pendingLoad = null;
+        isLoading = false;
+        arsenal = loaded;
+        onArsenalChanged();
         // 確保至少有一種球可以投，如果資料庫中沒有為該投手設定球種
-        if (pitchDatabase.isEmpty()) {
+        if (arsenal.isEmpty()) {
             System.err.println("No pitch data found for pitcher PID: " + pitcherId + ". Loading default pitches.");
             initialize_AllPitchesDefault();
         }
+        resetPitch();
+    }
+
+    // 加入視窗 (可能換到不同螢幕) 後以新的 GraphicsConfiguration 重建背景
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        invalidateBackground();
+    }
+
+    // 從視窗移除 (例如關閉視窗) 時確保迴圈已停止
+    @Override
+    public void removeNotify() {
+        pause();
+        super.removeNotify();
+    }
+
+    // 以 Canvas + BufferStrategy 取代 Swing Timer，遊戲迴圈在專屬執行緒上更新與繪製
+    private void createActiveRendering(MouseAdapter aimListener) {
+        setLayout(new BorderLayout());
+        gameCanvas = new GameCanvas(g2d -> {
+            synchronized (stateLock) {
+                renderFrame(g2d);
+            }
+        });
+        gameCanvas.addMouseMotionListener(aimListener); // 畫布蓋住面板，滑鼠事件由畫布轉交
+        add(gameCanvas, BorderLayout.CENTER);
+
+        gameLoop = new GameLoop(new GameLoop.Callbacks() {
+            @Override
+            public void update(double frameSeconds, long frameNanos) {
+                synchronized (stateLock) {
+                    long start = System.nanoTime();
+                    updateGame(frameSeconds, frameNanos);
+                    recordFrame(frameNanos, System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public void render() {
+                long start = System.nanoTime();
+                gameCanvas.renderFrame();
+                lastPaintNanos = System.nanoTime() - start;
+                metrics.recordPaint(lastPaintNanos);
+            }
+        }, GameLoop.targetFpsFromSystemProperty(), "game-loop");
     }
     
     // 創建一個通用球種的預設初始化方法 (可以用於打擊模式或沒有特定投手時)
@@ -135,14 +442,103 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
         // 這裡可以使用資料庫中某個預設投手的球種，或者硬編碼一些基礎球種
         // 為了方便，這裡暫時硬編碼一些數據，這些數據應與資料庫中的 Trajectory 表格相符
         // PID 和 BID 這裡暫時設為 0，實際應與通用投手的 PID/BID 對應
-        pitchDatabase.put("4SEAMFAST", new TrajectoryData(0, 1, 33.0, -2.7, -13.5, -2.2, 5.8, 96.8));
-        pitchDatabase.put("SLIDER", new TrajectoryData(0, 2, 35.0, 8.6, -32.4, -2.4, 5.7, 83.8));
-        pitchDatabase.put("CURVE", new TrajectoryData(0, 3, 9.0, 6.9, -46.9, -2.1, 5.2, 81.0));
-        pitchDatabase.put("CHANGE", new TrajectoryData(0, 4, 9.0, -10.1, -27.2, -2.6, 5.6, 88.4));
-        pitchDatabase.put("SINKER", new TrajectoryData(0, 5, 6.0, -8.7, -22.8, -2.3, 5.7, 94.3));
-        pitchDatabase.put("SPLIT", new TrajectoryData(0, 6, 6.0, -4.0, -28.0, -2.0, 6.1, 88.6));
-        pitchDatabase.put("SWEEPER", new TrajectoryData(0, 7, 15.0, 2.0, -25.6, -2.4, 5.7, 88.6));
-        pitchDatabase.put("CUTTER", new TrajectoryData(0, 8, 15.0, 2.0, -25.6, -2.4, 5.7, 88.6));
+        Map<String, TrajectoryData> defaults = new HashMap<>();
+        defaults.put("4SEAMFAST", new TrajectoryData(0, 1, 33.0, -2.7, -13.5, -2.2, 5.8, 96.8));
+        defaults.put("SLIDER", new TrajectoryData(0, 2, 35.0, 8.6, -32.4, -2.4, 5.7, 83.8));
+        defaults.put("CURVE", new TrajectoryData(0, 3, 9.0, 6.9, -46.9, -2.1, 5.2, 81.0));
+        defaults.put("CHANGE", new TrajectoryData(0, 4, 9.0, -10.1, -27.2, -2.6, 5.6, 88.4));
+        defaults.put("SINKER", new TrajectoryData(0, 5, 6.0, -8.7, -22.8, -2.3, 5.7, 94.3));
+        defaults.put("SPLIT", new TrajectoryData(0, 6, 6.0, -4.0, -28.0, -2.0, 6.1, 88.6));
+        defaults.put("SWEEPER", new TrajectoryData(0, 7, 15.0, 2.0, -25.6, -2.4, 5.7, 88.6));
+        defaults.put("CUTTER", new TrajectoryData(0, 8, 15.0, 2.0, -25.6, -2.4, 5.7, 88.6));
+        arsenal = Arsenal.of(defaults);
+        onArsenalChanged();
+    }
+
+    // 球種組合改變後重建 USEP 加權抽樣表與好球機率疊圖
+    private void onArsenalChanged() {
+        pitchSlot = -1;
+        pitchMix = arsenal.isEmpty() ? null : new AliasTable(arsenal.getUsageWeights());
+        previewSlot = 0;
+        aeroModel = PHYSICS == PhysicsModel.AERO && !arsenal.isEmpty() ? AeroModel.calibrate(arsenal) : null;
+        recomputeCommandOverlays();
+        locationOverlay = null;
+        if (pendingHeatmap != null) {
+            pendingHeatmap.cancel(true);
+            pendingHeatmap = null;
+        }
+        if (isHittingMode && showHeatOverlay) computeLocationHeatmap();
+    }
+
+    // 以打擊模式的落點分佈模擬目前的球種組合；保留一個核心給遊戲迴圈與 EDT
+    private void computeLocationHeatmap() {
+        Arsenal snapshot = arsenal;
+        if (snapshot.isEmpty()) return;
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        double plateZ_ft = endZ_ft;
+        pendingHeatmap = DataLoader.compute(() -> {
+            Heatmap[] heatmaps = new MonteCarloSimulator(HEATMAP_SEED, parallelism)
+                    .heatmaps(snapshot, HEATMAP_PITCHES, PitchTargets.HITTING_MODE, HEATMAP_CELLS_PER_FOOT);
+            return LocationOverlay.build(camera, Heatmap.sum(heatmaps), plateZ_ft);
+        });
+        DataLoader.onEdt(pendingHeatmap, overlay -> {
+            synchronized (stateLock) {
+                if (arsenal != snapshot) return;
+                pendingHeatmap = null;
+                locationOverlay = overlay;
+            }
+            repaint();
+        }, error -> {
+            System.err.println("Error simulating pitch location heatmap: " + error);
+            synchronized (stateLock) {
+                pendingHeatmap = null;
+            }
+        });
+    }
+
+    // 每個球種一個背景工作；完成後回到 EDT，球種組合已經換掉時丟棄結果
+    private void recomputeCommandOverlays() {
+        Arsenal snapshot = arsenal;
+        commandOverlays = new CommandOverlay[snapshot.size()];
+        strikePercent = -1;
+        hudStrikeChance = null;
+        if (isHittingMode) return;
+        CommandModel model = commandModel;
+        double plateZ_ft = endZ_ft;
+        for (int slot = 0; slot < snapshot.size(); slot++) {
+            int s = slot;
+            DataLoader.onEdt(DataLoader.compute(() -> CommandOverlay.build(camera, StrikeProbabilityGrid.compute(model, snapshot, s), plateZ_ft)),
+                    overlay -> installCommandOverlay(snapshot, s, overlay),
+                    error -> System.err.println("Error computing strike probability for slot " + s + ": " + error));
+        }
+    }
+
+    private void installCommandOverlay(Arsenal snapshot, int slot, CommandOverlay overlay) {
+        synchronized (stateLock) {
+            if (arsenal != snapshot) return;
+            commandOverlays[slot] = overlay;
+            if (slot == previewSlot) updateStrikeChance();
+        }
+        repaint();
+    }
+
+    private CommandOverlay currentCommandOverlay() {
+        return previewSlot < commandOverlays.length ? commandOverlays[previewSlot] : null;
+    }
+
+    // 瞄準點或顯示球種改變時更新好球機率文字；百分比沒變時不重建字串
+    private void updateStrikeChance() {
+        CommandOverlay overlay = currentCommandOverlay();
+        if (overlay == null) {
+            strikePercent = -1;
+            hudStrikeChance = null;
+            return;
+        }
+        int percent = (int) Math.round(overlay.grid.probabilityAt(aimX_ft, aimY_ft) * 100);
+        if (percent != strikePercent) {
+            strikePercent = percent;
+            hudStrikeChance = "Strike " + percent + "% (" + arsenal.getName(previewSlot) + ")";
+        }
     }
     
     // 移除原有的初始化特定投手數據的方法
@@ -152,224 +548,494 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
     // private void initialize_PaulSkenes(Map<String, PitchData> db) { ... }
     // private void initialize_TylerRogers(Map<String, PitchData> db) { ... }
 
-    private Point project3D(double objX_ft, double objY_ft, double objZ_ft) {
-        double deltaX = objX_ft - 0;
-        double deltaY = objY_ft - cameraY_ft;
-        double deltaZ = objZ_ft - cameraZ_ft;
-        if (deltaZ <= 0.1) return null;
-        double projectedX = (deltaX * focalLength) / deltaZ;
-        double projectedY = (deltaY * focalLength) / deltaZ;
-        int screenX = vanishingPointX + (int) projectedX;
-        int screenY = vanishingPointY - (int) projectedY;
-        return new Point(screenX, screenY);
+    // 投影結果寫入 out，不配置 Point；在攝影機後方時回傳 false
+    boolean project3D(double objX_ft, double objY_ft, double objZ_ft, int[] out) {
+        return camera.project(objX_ft, objY_ft, objZ_ft, out);
     }
     
-    private int calculateBallSize(double objZ_ft) {
-        double deltaZ = objZ_ft - cameraZ_ft;
-        if (deltaZ <= 0) return 0;
-        double visualSize = (0.24 * focalLength) / deltaZ;
-        return Math.max(2, (int)visualSize);
+    int calculateBallSize(double objZ_ft) {
+        return camera.ballSize(objZ_ft);
     }
 
-    private void calculateRealisticTrajectory(String type) {
-        TrajectoryData data = pitchDatabase.get(type); // 使用 TrajectoryData
-        if (data == null) {
-            System.err.println("Pitch type " + type + " data not found. Using a default pitch.");
-            data = pitchDatabase.values().iterator().next(); // 使用任一可用球種作為備用
-        }
-        this.pitchType = type;
+    private void calculateRealisticTrajectory(int slot) {
+        this.pitchSlot = slot;
         
-        // 使用 TrajectoryData 中的釋放點
-        startX_ft = data.getRex(); 
-        startY_ft = data.getRey(); 
-        startZ_ft = PITCHER_MOUND_DISTANCE_FT; // 投手丘距離
-        
-        x_ft = startX_ft; y_ft = startY_ft; z_ft = startZ_ft;
-        
-        // 從 TrajectoryData 獲取速度和位移
-        double releaseSpeed_mph = data.getSpeed();
-        double horizontalMovement_in = data.getHmov();
-        double verticalMovement_in = data.getVmov();
-
-        double releaseSpeed_fts = releaseSpeed_mph * 1.467; // mph 轉 fts
-        double pfx_x_ft = horizontalMovement_in / 12.0; // inches 轉 ft
-        double pfx_z_ft = verticalMovement_in / 12.0; // inches 轉 ft
-
-        double flightDistance = startZ_ft - endZ_ft;
-        double flightTime = flightDistance / releaseSpeed_fts;
-
-        // 計算加速度
-        this.ax = (2 * pfx_x_ft) / (flightTime * flightTime);
-        this.ay = (2 * pfx_z_ft) / (flightTime * flightTime);
-        
-        double targetX, targetY;
         if (isHittingMode) {
-            // 打擊模式下，球路落點隨機化
-            if (random.nextDouble() < 0.6) { // 60% 機率投進好球帶
-                targetX = random.nextDouble() * (strikeZoneRight_ft - strikeZoneLeft_ft) + strikeZoneLeft_ft;
-                targetY = random.nextDouble() * (strikeZoneTop_ft - strikeZoneBottom_ft) + strikeZoneBottom_ft;
-            } else { // 40% 機率投在好球帶外
-                double margin = 0.5;
-                targetX = (random.nextBoolean() ? 1 : -1) * (strikeZoneRight_ft + margin);
-                targetY = random.nextDouble() * (strikeZoneTop_ft + margin - (strikeZoneBottom_ft - margin)) + (strikeZoneBottom_ft - margin);
+            // 打擊模式下，球路落點隨機化 (60% 好球帶內，40% 好球帶外)
+            PitchTargets.hittingModeTarget(random, target);
+            if (aeroModel != null) {
+                simulator.launch(aeroModel.solve(slot, arsenal.getRex(slot), arsenal.getRey(slot), target[0], target[1]));
+            } else {
+                simulator.launch(AnalyticTrajectory.solve(arsenal, slot, target[0], target[1]));
             }
         } else {
-            // 投球模式下，球路落點根據玩家瞄準決定
-            targetX = this.aimX_ft;
-            targetY = this.aimY_ft;
+            // 投球模式下，落點為瞄準點加上控球誤差；量化後相同的落點重用已求解的軌跡
+            commandModel.sampleLocation(random, arsenal, slot, aimX_ft, aimY_ft, target);
+            double releaseSigma = commandModel.getReleaseSigma();
+            double releaseDx = random.nextGaussian() * releaseSigma, releaseDy = random.nextGaussian() * releaseSigma;
+            if (aeroModel != null) {
+                simulator.launch(aeroModel.solve(slot, arsenal.getRex(slot) + releaseDx, arsenal.getRey(slot) + releaseDy,
+                        target[0], target[1]));
+            } else {
+                simulator.launch(trajectoryCache.get(arsenal, slot, target[0], target[1]).withReleaseOffset(releaseDx, releaseDy));
+            }
+            if (previewSlot != slot) {
+                previewSlot = slot;
+                updateStrikeChance();
+            }
         }
+        simClockNanos = clock.getAsLong();
+        syncBallFromSimulator();
+    }
 
-        // 計算初始速度
-        this.vx = ((targetX - startX_ft) / flightTime) - (0.5 * ax * flightTime);
-        this.vy = ((targetY - startY_ft) / flightTime) - (0.5 * ay * flightTime);
-        this.vz = releaseSpeed_fts;
+    private void syncBallFromSimulator() {
+        x_ft = simulator.getRenderX();
+        y_ft = simulator.getRenderY();
+        z_ft = simulator.getRenderZ();
     }
     
+    // Swing Timer 模式的每一幀
     private void actionPerformed(ActionEvent e) {
-        if (isPaused) { lastFrameTime = System.nanoTime(); return; }
-        long currentTime = System.nanoTime();
-        double frameTime = (currentTime - lastFrameTime) / 1_000_000_000.0;
-        lastFrameTime = currentTime;
+        tick(clock.getAsLong());
+    }
+
+    // 以指定的時鐘時間推進一幀：更新遊戲狀態、記錄量測並重繪有變化的區域
+    // Swing 計時器與 soak 測試 (虛擬時鐘、不經過計時器) 共用這條路徑
+    void tick(long frameNanos) {
+        synchronized (stateLock) {
+            if (isPaused) { lastFrameTime = frameNanos; return; }
+            double frameTime = (frameNanos - lastFrameTime) / 1_000_000_000.0;
+            // 計時器落後超過半個週期就算掉幀
+            metrics.addDroppedFrames((frameNanos - lastFrameTime + TIMER_PERIOD_NANOS / 2) / TIMER_PERIOD_NANOS - 1);
+            lastFrameTime = frameNanos;
+            long start = System.nanoTime();
+            updateGame(frameTime, frameNanos);
+            recordFrame(frameNanos, System.nanoTime() - start);
+            repaintDamage();
+        }
+    }
+
+    // soak 測試使用：換掉遊戲狀態的時鐘與亂數種子 (在 configure 之前呼叫)
+    void useClock(LongSupplier clock) {
+        synchronized (stateLock) {
+            this.clock = clock;
+        }
+    }
+
+    void setSeed(long seed) {
+        synchronized (stateLock) {
+            random.setSeed(seed);
+        }
+    }
+
+    // soak 測試讀取的狀態
+    boolean isPitchInFlight() { synchronized (stateLock) { return isPitching; } }
+    boolean hasBallReachedCatcher() { synchronized (stateLock) { return ballReachedCatcher; } }
+    boolean isSwingAttempted() { synchronized (stateLock) { return swingAttempted; } }
+    boolean wasLastPitchStrike() { synchronized (stateLock) { return lastPitchStrike; } }
+    boolean isArsenalLoading() { synchronized (stateLock) { return isLoading; } }
+    int getCountdown() { synchronized (stateLock) { return countdown; } }
+    String getHitResult() { synchronized (stateLock) { return hitResult; } }
+    double getPitchFlightTime() { synchronized (stateLock) { return simulator.getFlightTime(); } }
+    int getArsenalSize() { synchronized (stateLock) { return arsenal.size(); } }
+    String getPitchName() {
+        synchronized (stateLock) {
+            return pitchSlot >= 0 && pitchSlot < arsenal.size() ? arsenal.getName(pitchSlot) : null;
+        }
+    }
+
+    // 記錄一幀的量測；Swing 模式在 EDT 上、主動渲染模式在遊戲迴圈執行緒上呼叫
+    // 配置量是同一個執行緒兩幀之間的差 (Swing 模式包含繪製與輸入事件)
+    private void recordFrame(long frameNanos, long physicsNanos) {
+        long allocated = GameMetrics.allocatedBytes();
+        long allocatedDelta = allocated >= 0 && lastAllocatedBytes >= 0 ? allocated - lastAllocatedBytes : -1;
+        lastAllocatedBytes = allocated;
+        if (lastRecordedFrameNanos != 0) {
+            metrics.recordFrame(frameNanos - lastRecordedFrameNanos, physicsNanos, lastPaintNanos, allocatedDelta);
+        }
+        lastRecordedFrameNanos = frameNanos;
+        if (showProfiler && frameNanos - profilerUpdatedNanos >= PROFILER_REFRESH_NANOS) {
+            profilerUpdatedNanos = frameNanos;
+            updateProfilerText();
+        }
+    }
+
+    // 效能疊圖：最近 PROFILER_REFRESH_NANOS 期間的分佈 (兩個快照相減)
+    private void updateProfilerText() {
+        LatencyHistogram.Snapshot frame = metrics.getFrameTime().snapshot();
+        LatencyHistogram.Snapshot paint = metrics.getPaint().snapshot();
+        LatencyHistogram.Snapshot physics = metrics.getPhysics().snapshot();
+        LatencyHistogram.Snapshot edt = metrics.getEdtDelay().snapshot();
+        LatencyHistogram.Snapshot alloc = metrics.getAllocation().snapshot();
+        if (profilerBase != null) {
+            LatencyHistogram.Snapshot f = frame.since(profilerBase[0]), p = paint.since(profilerBase[1]);
+            LatencyHistogram.Snapshot ph = physics.since(profilerBase[2]), e = edt.since(profilerBase[3]), a = alloc.since(profilerBase[4]);
+            profilerText = new String[] {
+                    String.format(Locale.ROOT, "frame   p50 %5.2f  p99 %5.2f  max %5.2f ms", ms(f.getPercentile(50)), ms(f.getPercentile(99)), ms(f.getMax())),
+                    String.format(Locale.ROOT, "paint   p50 %5.2f  p99 %5.2f ms", ms(p.getPercentile(50)), ms(p.getPercentile(99))),
+                    String.format(Locale.ROOT, "physics p50 %5.3f  p99 %5.3f ms", ms(ph.getPercentile(50)), ms(ph.getPercentile(99))),
+                    String.format(Locale.ROOT, "EDT delay p99 %5.2f ms   dropped %d", ms(e.getPercentile(99)), metrics.getDroppedFrames()),
+                    String.format(Locale.ROOT, "alloc/frame p50 %,d B  p99 %,d B", a.getPercentile(50), a.getPercentile(99))
+            };
+        }
+        profilerBase = new LatencyHistogram.Snapshot[] {frame, paint, physics, edt, alloc};
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // 只重繪這一幀有變化的區域：球、準星 (含控球範圍與好球機率文字) 的舊範圍與新範圍，以及內容改變的 HUD
+    // 倒數期間只有數字改變時才重繪 HUD，球停在捕手位置或沒有輸入時完全不重繪
+    // 其他少見的變化 (換球種、疊圖完成、暫停) 仍然直接呼叫 repaint()
+    private void repaintDamage() {
+        damage.setBounds(0, 0, 0, 0);
+        computeBallBounds(scratchBounds);
+        if (!scratchBounds.equals(ballBounds)) {
+            addDamage(ballBounds);
+            addDamage(scratchBounds);
+            ballBounds.setBounds(scratchBounds);
+        }
+        computeAimBounds(scratchBounds);
+        if (!scratchBounds.equals(aimBounds)) {
+            addDamage(aimBounds);
+            addDamage(scratchBounds);
+            aimBounds.setBounds(scratchBounds);
+        }
+        if (showProfiler && profilerText != paintedProfilerText) {
+            paintedProfilerText = profilerText;
+            scratchBounds.setBounds(PROFILER_LEFT, PROFILER_TOP, PROFILER_WIDTH + 1, PROFILER_HEIGHT + 1);
+            addDamage(scratchBounds);
+        }
+        updateHudState();
+        if (hudBandDamaged) {
+            hudBandDamaged = false;
+            scratchBounds.setBounds(0, 0, windowWidth, HUD_BAND_HEIGHT);
+            addDamage(scratchBounds);
+        }
+        if (!damage.isEmpty()) {
+            repaint(damage.x, damage.y, damage.width, damage.height);
+        }
+    }
+
+    private void addDamage(Rectangle bounds) {
+        if (bounds.isEmpty()) return;
+        if (damage.isEmpty()) {
+            damage.setBounds(bounds);
+        } else {
+            damage.add(bounds);
+        }
+    }
+
+    // 與 drawBall 相同的位置與尺寸；球沒有顯示時為空
+    private void computeBallBounds(Rectangle out) {
+        out.setBounds(0, 0, 0, 0);
+        if (!(isPitching || ballReachedCatcher) || !project3D(x_ft, y_ft, z_ft, projected)) return;
+        int ballSize = calculateBallSize(z_ft);
+        out.setBounds(projected[0] - ballSize/2, projected[1] - ballSize/2, ballSize, ballSize);
+        out.grow(DAMAGE_MARGIN, DAMAGE_MARGIN);
+    }
+
+    // 與 drawAimingReticle、drawCommandOverlay 相同的範圍；投球模式且沒有在投球時才顯示
+    private void computeAimBounds(Rectangle out) {
+        out.setBounds(0, 0, 0, 0);
+        if (isHittingMode || isPitching || !project3D(aimX_ft, aimY_ft, endZ_ft, projected)) return;
+        int sx = projected[0], sy = projected[1];
+        out.setBounds(sx - RETICLE_SIZE, sy - RETICLE_SIZE, 2 * RETICLE_SIZE + 1, 2 * RETICLE_SIZE + 1);
+        CommandOverlay overlay = currentCommandOverlay();
+        if (showHeatOverlay && overlay != null) {
+            double dx = 2 * overlay.grid.getSigmaX(), dy = 2 * overlay.grid.getSigmaY();
+            if (project3D(aimX_ft - dx, aimY_ft + dy, endZ_ft, projected)) out.add(projected[0], projected[1]);
+            if (project3D(aimX_ft + dx, aimY_ft - dy, endZ_ft, projected)) out.add(projected[0], projected[1]);
+            if (hudStrikeChance != null) {
+                if (helpFontMetrics == null) helpFontMetrics = getFontMetrics(HELP_FONT);
+                FontMetrics metrics = helpFontMetrics;
+                if (hudStrikeChance != measuredStrikeChance) { // 文字改變時才重新量測寬度
+                    measuredStrikeChance = hudStrikeChance;
+                    measuredStrikeChanceWidth = metrics.stringWidth(hudStrikeChance);
+                }
+                out.add(sx + 18, sy - 18 - metrics.getAscent());
+                out.add(sx + 18 + measuredStrikeChanceWidth, sy - 18 + metrics.getDescent());
+            }
+        }
+        out.grow(DAMAGE_MARGIN, DAMAGE_MARGIN);
+    }
+
+    // HUD 顯示的內容和上一次繪製時不同就記下新的內容，標記圖層需要重畫、HUD 區域需要重繪
+    // 重繪區域追蹤與繪製都會呼叫，先發現變化的一方標記兩者
+    private void updateHudState() {
+        int countdownDigit = countdown > 0 ? Math.min(countdown / 60, COUNTDOWN_TEXT.length - 1) : -1;
+        if (countdownDigit == paintedCountdown && isPitching == paintedPitching && ballReachedCatcher == paintedReachedCatcher
+                && isLoading == paintedLoading && lastPitchStrike == paintedStrike && showHeatOverlay == paintedHeatOverlay
+                && isHittingMode == paintedHittingMode && hitResult == paintedHitResult && hudLatency == paintedLatency
+                && hudTitle == paintedTitle && hudPitchList == paintedPitchList && hudSpeed == paintedSpeed
+                && hudPitchingStatus == paintedPitchingStatus && hudSelectStatus == paintedSelectStatus
+                && locationOverlay == paintedLocationOverlay) {
+            return;
+        }
+        paintedCountdown = countdownDigit;
+        paintedPitching = isPitching;
+        paintedReachedCatcher = ballReachedCatcher;
+        paintedLoading = isLoading;
+        paintedStrike = lastPitchStrike;
+        paintedHeatOverlay = showHeatOverlay;
+        paintedHittingMode = isHittingMode;
+        paintedHitResult = hitResult;
+        paintedLatency = hudLatency;
+        paintedTitle = hudTitle;
+        paintedPitchList = hudPitchList;
+        paintedSpeed = hudSpeed;
+        paintedPitchingStatus = hudPitchingStatus;
+        paintedSelectStatus = hudSelectStatus;
+        paintedLocationOverlay = locationOverlay;
+        hudLayerStale = true;
+        hudBandDamaged = true;
+    }
+
+    // 推進遊戲狀態；Swing Timer 與主動渲染的遊戲迴圈共用
+    private void updateGame(double frameTime, long frameNanos) {
+        if (isPaused) return;
         frameTime = Math.min(frameTime, 0.05);
 
         if (isHittingMode && !isPitching && hitResult == null) {
-            if (countdown > 0) { countdown--; } else { startPitch(randomPitchType()); }
+            if (countdown > 0) {
+                // 倒數以實際時間換算成 60Hz 的幀數，與渲染幀率無關
+                countdownAccumulator += frameTime;
+                while (countdown > 0 && countdownAccumulator >= COUNTDOWN_TICK_SECONDS) {
+                    countdown--;
+                    countdownAccumulator -= COUNTDOWN_TICK_SECONDS;
+                }
+            } else {
+                startPitch(randomPitchSlot());
+            }
         }
         
         if (isPitching && !ballReachedCatcher) {
-            double prev_x = x_ft; double prev_y = y_ft; double prev_z = z_ft;
-            vx += ax * frameTime;
-            vy += ay * frameTime;
-            x_ft += vx * frameTime;
-            y_ft += vy * frameTime;
-            z_ft -= vz * frameTime; // 球向攝影機 (Z軸負方向) 移動
+            simulator.advance(frameTime);
+            simClockNanos = frameNanos;
+            syncBallFromSimulator();
             
-            if (z_ft <= endZ_ft) {
-                // 球到達本壘板前的精確位置
-                double z_travel_in_frame = prev_z - z_ft;
-                if (z_travel_in_frame > 0) {
-                    double fraction = (prev_z - endZ_ft) / z_travel_in_frame;
-                    x_ft = prev_x + (x_ft - prev_x) * fraction;
-                    y_ft = prev_y + (y_ft - prev_y) * fraction;
-                }
-                z_ft = endZ_ft;
+            if (simulator.hasReachedPlate()) {
                 isPitching = false;
                 ballReachedCatcher = true;
 
                 // 判斷是否為好球
-                boolean isStrike = x_ft >= strikeZoneLeft_ft && x_ft <= strikeZoneRight_ft && y_ft >= strikeZoneBottom_ft && y_ft <= strikeZoneTop_ft;
+                boolean isStrike = simulator.isStrike();
+                lastPitchStrike = isStrike;
                 
                 if (isHittingMode && !swingAttempted) {
                     hitResult = isStrike ? "Strike" : "Ball";
                 }
             }
         }
-        repaint();
     }
 
     private void resetPitch() {
-        vx=vy=vz=ax=ay=0;
         isPitching = ballReachedCatcher = swingAttempted = false;
-        pitchType = "none";
+        pitchSlot = -1;
         hitResult = null;
         if (isHittingMode) { countdown = 180; }
+        countdownAccumulator = 0;
         
         // 重置球的位置到投手釋放點
-        // 確保 pitchDatabase 不為空，以防資料載入失敗
-        TrajectoryData data = pitchDatabase.isEmpty() ? new TrajectoryData(0,0,0,0,0, -2.0, 6.0, 90.0) : pitchDatabase.values().iterator().next(); 
-        x_ft = data.getRex();
-        y_ft = data.getRey();
-        z_ft = PITCHER_MOUND_DISTANCE_FT;
-        lastFrameTime = System.nanoTime();
+        // 球種組合為空 (資料載入中或失敗) 時使用預設釋放點
+        if (arsenal.isEmpty()) {
+            simulator.reset(-2.0, 6.0);
+        } else {
+            simulator.reset(arsenal.getRex(0), arsenal.getRey(0));
+        }
+        syncBallFromSimulator();
+        lastFrameTime = clock.getAsLong();
+        rebuildHudText();
         repaint();
     }
     
-    private String randomPitchType() {
-        // 確保 pitchDatabase 不為空
-        if (pitchDatabase.isEmpty()) {
-            // 如果資料庫為空，可以考慮拋出錯誤或返回一個預設球種
-            return "4SEAMFAST"; // 備用
+    // 依各球種的使用率 (USEP) 抽出下一球，O(1) 且不配置物件
+    // 球種組合為空時回傳 -1，startPitch 會忽略
+    private int randomPitchSlot() {
+        return pitchMix != null ? pitchMix.sample(random) : -1;
+    }
+
+    // 取出揮棒按鍵的時間戳記；沒有 (例如程式觸發) 時使用目前時間
+    private long takeSwingKeyNanos() {
+        long stamped = swingKeyNanos;
+        swingKeyNanos = 0;
+        return stamped != 0 ? stamped : clock.getAsLong();
+    }
+
+    // 某個時間點球已飛行的比例 (0 = 出手, 1 = 到達本壘板前緣)
+    // 等速前進下 z 的比例等於時間比例，按鍵晚於到達時可以大於 1
+    double swingTimeRatioAt(long eventNanos) {
+        double flightTime = simulator.getFlightTime();
+        if (flightTime <= 0) return (startZ_ft - z_ft) / (startZ_ft - endZ_ft);
+        double t = simulator.getClockTime();
+        if (!isPaused) {
+            t += (eventNanos - simClockNanos) / 1_000_000_000.0;
         }
-        Object[] types = pitchDatabase.keySet().toArray();
-        return (String) types[random.nextInt(types.length)];
+        return t / flightTime;
     }
 
-    private void startPitch(String type) {
-        if (!pitchDatabase.containsKey(type)) {
-            System.err.println("Pitch type " + type + " not in current pitcher's arsenal.");
+    private void startPitch(int slot) {
+        if (slot < 0 || slot >= arsenal.size()) {
+            System.err.println("Pitch slot " + slot + " not in current pitcher's arsenal.");
             // 可以選擇不投球，或投一個預設球種
             return;
         }
-        if (!isPitching && !isPaused) {
+        if (!isPitching && !isPaused && !isLoading) {
             this.isPitching = true;
             this.ballReachedCatcher = false;
             this.swingAttempted = false;
             this.hitResult = null;
-            calculateRealisticTrajectory(type);
+            calculateRealisticTrajectory(slot);
+            rebuildHudText();
         }
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
+        if (gameCanvas != null) return; // 主動渲染模式由遊戲迴圈繪製
+        long start = System.nanoTime();
+        renderFrame((Graphics2D) g);
+        lastPaintNanos = System.nanoTime() - start;
+        metrics.recordPaint(lastPaintNanos);
+    }
+
+    // 繪製一幀；Swing 模式由 paintComponent 呼叫，主動渲染模式由遊戲迴圈呼叫
+    private void renderFrame(Graphics2D g2d) {
+        // 背景圖層覆蓋整個面板，不需要 super.paintComponent 先清除
+        g2d.drawImage(getBackgroundLayer(), 0, 0, null);
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setColor(new Color(135, 206, 235));
-        g2d.fillRect(0, 0, windowWidth, windowHeight);
-        drawField(g2d);
-        drawStrikeZone(g2d);
-        drawPitcherMound(g2d);
         if (!isHittingMode && !isPitching) {
+            drawCommandOverlay(g2d);
             drawAimingReticle(g2d);
         }
-        drawUI(g2d);
+        if (isHittingMode && showHeatOverlay) {
+            drawLocationHeatmap(g2d);
+        }
+        drawHudLayer(g2d);
         if (isPitching || ballReachedCatcher) {
             drawBall(g2d);
         }
+        if (showProfiler) {
+            drawProfilerLayer(g2d);
+        }
         if (isPaused) {
-            g2d.setColor(new Color(0, 0, 0, 150));
+            g2d.setColor(HUD_BACKGROUND_COLOR);
             g2d.fillRect(0, 0, windowWidth, windowHeight);
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 48));
-            g2d.drawString("Paused", (windowWidth - g2d.getFontMetrics().stringWidth("Paused")) / 2, windowHeight / 2);
+            g2d.setFont(PAUSED_FONT);
+            if (pausedTextWidth < 0) pausedTextWidth = getFontMetrics(PAUSED_FONT).stringWidth("Paused");
+            g2d.drawString("Paused", (windowWidth - pausedTextWidth) / 2, windowHeight / 2);
+        }
+    }
+
+    private void drawHudLayer(Graphics2D g2d) {
+        updateHudState();
+        if (hudLayer == null) hudLayer = new BufferedImage(windowWidth, HUD_BAND_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        if (hudLayerStale) {
+            hudLayerStale = false;
+            Graphics2D layer = clearLayer(hudLayer);
+            try {
+                drawUI(layer);
+            } finally {
+                layer.dispose();
+            }
         }
+        g2d.drawImage(hudLayer, 0, 0, null);
+    }
+
+    private void drawProfilerLayer(Graphics2D g2d) {
+        String[] lines = profilerText;
+        if (profilerLayer == null || lines != profilerLayerText) {
+            if (profilerLayer == null) {
+                profilerLayer = new BufferedImage(PROFILER_WIDTH + 1, PROFILER_HEIGHT + 1, BufferedImage.TYPE_INT_ARGB);
+            }
+            profilerLayerText = lines;
+            Graphics2D layer = clearLayer(profilerLayer);
+            try {
+                layer.translate(-PROFILER_LEFT, -PROFILER_TOP);
+                drawProfiler(layer, lines);
+            } finally {
+                layer.dispose();
+            }
+        }
+        g2d.drawImage(profilerLayer, PROFILER_LEFT, PROFILER_TOP, null);
+    }
+
+    // 清成全透明，設定與 renderFrame 相同的反鋸齒
+    private static Graphics2D clearLayer(BufferedImage image) {
+        Graphics2D g2d = image.createGraphics();
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return g2d;
+    }
+
+    // 攝影機參數或面板尺寸改變時呼叫，下一幀重建背景
+    private void invalidateBackground() {
+        backgroundLayer = null;
+    }
+
+    private BufferedImage getBackgroundLayer() {
+        int width = Math.max(1, Math.max(getWidth(), windowWidth));
+        int height = Math.max(1, Math.max(getHeight(), windowHeight));
+        if (backgroundLayer == null || backgroundLayer.getWidth() != width || backgroundLayer.getHeight() != height) {
+            backgroundLayer = renderBackground(width, height);
+        }
+        return backgroundLayer;
+    }
+
+    private BufferedImage renderBackground(int width, int height) {
+        // 使用與螢幕相容的格式，繪製時不需要轉換
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(width, height, Transparency.OPAQUE)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(SKY_COLOR);
+            g2d.fillRect(0, 0, width, height);
+            drawField(g2d);
+            drawStrikeZone(g2d);
+            drawPitcherMound(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
     }
 
     private void drawField(Graphics2D g2d) {
-        Point groundStart = project3D(0, 0, PITCHER_MOUND_DISTANCE_FT);
-        Point groundEnd = project3D(0, 0, 0);
-        if(groundStart != null && groundEnd != null) {
-            g2d.setColor(new Color(188, 143, 143)); // 土色
-            Polygon dirtArea = new Polygon();
-            dirtArea.addPoint(groundStart.x - 200, groundStart.y);
-            dirtArea.addPoint(groundStart.x + 200, groundStart.y);
-            dirtArea.addPoint(windowWidth, groundEnd.y);
-            dirtArea.addPoint(0, groundEnd.y);
-            g2d.fillPolygon(dirtArea);
+        int[] ground = new int[4]; // 起點 (x, y)、終點 (x, y)
+        if (camera.project(0, 0, PITCHER_MOUND_DISTANCE_FT, ground, 0) && camera.project(0, 0, 0, ground, 2)) {
+            g2d.setColor(DIRT_COLOR);
+            int[] xs = { ground[0] - 200, ground[0] + 200, windowWidth, 0 };
+            int[] ys = { ground[1], ground[1], ground[3], ground[3] };
+            g2d.fillPolygon(xs, ys, 4);
         }
     }
 
     private void drawStrikeZone(Graphics2D g2d) {
-        g2d.setStroke(new BasicStroke(3));
-        g2d.setColor(new Color(255, 255, 255, 100)); // 半透明白色
-        Point tl = project3D(strikeZoneLeft_ft, strikeZoneTop_ft, endZ_ft);
-        Point tr = project3D(strikeZoneRight_ft, strikeZoneTop_ft, endZ_ft);
-        Point bl = project3D(strikeZoneLeft_ft, strikeZoneBottom_ft, endZ_ft);
-        Point br = project3D(strikeZoneRight_ft, strikeZoneBottom_ft, endZ_ft);
-        if (tl != null && tr != null && bl != null && br != null) {
-            g2d.drawLine(tl.x, tl.y, tr.x, tr.y);
-            g2d.drawLine(tr.x, tr.y, br.x, br.y);
-            g2d.drawLine(br.x, br.y, bl.x, bl.y);
-            g2d.drawLine(bl.x, bl.y, tl.x, tl.y);
+        g2d.setStroke(STRIKE_ZONE_STROKE);
+        g2d.setColor(STRIKE_ZONE_COLOR);
+        int[] c = new int[8]; // 左上、右上、左下、右下
+        if (camera.project(strikeZoneLeft_ft, strikeZoneTop_ft, endZ_ft, c, 0)
+                && camera.project(strikeZoneRight_ft, strikeZoneTop_ft, endZ_ft, c, 2)
+                && camera.project(strikeZoneLeft_ft, strikeZoneBottom_ft, endZ_ft, c, 4)
+                && camera.project(strikeZoneRight_ft, strikeZoneBottom_ft, endZ_ft, c, 6)) {
+            g2d.drawLine(c[0], c[1], c[2], c[3]);
+            g2d.drawLine(c[2], c[3], c[6], c[7]);
+            g2d.drawLine(c[6], c[7], c[4], c[5]);
+            g2d.drawLine(c[4], c[5], c[0], c[1]);
         }
     }
 
     private void drawPitcherMound(Graphics2D g2d) {
-        Point moundCenter = project3D(0, 0, PITCHER_MOUND_DISTANCE_FT);
-        if (moundCenter != null) {
+        if (project3D(0, 0, PITCHER_MOUND_DISTANCE_FT, projected)) {
             int moundSize = calculateBallSize(PITCHER_MOUND_DISTANCE_FT) * 10;
-            g2d.setColor(new Color(160, 82, 45)); // 深土色
-            g2d.fillOval(moundCenter.x - moundSize/2, moundCenter.y - moundSize/4, moundSize, moundSize/2);
+            g2d.setColor(MOUND_COLOR);
+            g2d.fillOval(projected[0] - moundSize/2, projected[1] - moundSize/4, moundSize, moundSize/2);
         }
     }
 
@@ -383,67 +1049,100 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
         }
     }
 
+    // 球種列表、投手名稱或目前球種改變時重建 HUD 文字
+    private void rebuildHudText() {
+        hudTitle = isHittingMode ? "Hitting Mode" : ("Pitching Mode - " + (currentPitcher != null ? currentPitcher.getPname() : "N/A"));
+
+        StringBuilder pitchList = new StringBuilder("Pitches: ");
+        for (int slot = 0; slot < arsenal.size(); slot++) {
+            pitchList.append(slot + 1).append('=').append(arsenal.getName(slot)).append(' ');
+        }
+        hudPitchList = pitchList.toString();
+        hudSelectStatus = "Select Pitch (1-" + arsenal.size() + "), Aim.";
+        hudPitchingStatus = "Pitching: " + (pitchSlot >= 0 ? arsenal.getName(pitchSlot) : "none");
+
+        // 顯示當前球種的具體數據 (速度)；如果沒有明確選擇球種，顯示第一個槽位
+        int displaySlot = pitchSlot >= 0 ? pitchSlot : (arsenal.isEmpty() ? -1 : 0);
+        hudSpeed = displaySlot >= 0 ? "Speed: " + String.format(Locale.ROOT, "%.1f mph", arsenal.getSpeed(displaySlot)) : null;
+    }
+
     private void drawUI(Graphics2D g2d) {
-        g2d.setColor(new Color(0, 0, 0, 150)); // 半透明黑色背景
+        g2d.setColor(HUD_BACKGROUND_COLOR);
         g2d.fillRoundRect(10, 10, 500, 160, 10, 10); // 調整高度以容納更多信息
 
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
+        g2d.setFont(TITLE_FONT);
         // 顯示當前模式和投手名稱
-        g2d.drawString(isHittingMode ? "Hitting Mode" : ("Pitching Mode - " + (currentPitcher != null ? currentPitcher.getPname() : "N/A")), 20, 30);
+        g2d.drawString(hudTitle, 20, 30);
         
         if (isHittingMode) {
-            g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-            g2d.drawString("Space=Swing | M=Menu | ESC=Pause", 20, 50);
+            g2d.setFont(HELP_FONT);
+            g2d.drawString("Space=Swing | M=Menu | ESC=Pause | H=Heatmap", 20, 50);
+            if (hudLatency != null) {
+                g2d.drawString(hudLatency, 20, 70);
+            }
+            if (showHeatOverlay) {
+                g2d.drawString(locationOverlay != null ? locationOverlay.summary : "Simulating heatmap...", 20, 90);
+            }
             if (countdown > 0) {
-                g2d.setFont(new Font("Arial", Font.BOLD, 24));
+                g2d.setFont(COUNTDOWN_FONT);
                 g2d.setColor(Color.YELLOW);
-                g2d.drawString("Pitch in: " + ((countdown / 60) + 1), windowWidth / 2 - 60, 60);
+                g2d.drawString(COUNTDOWN_TEXT[Math.min(countdown / 60, COUNTDOWN_TEXT.length - 1)], windowWidth / 2 - 60, 60);
             } else if (hitResult != null) {
-                g2d.setFont(new Font("Arial", Font.BOLD, 36));
+                g2d.setFont(HIT_RESULT_FONT);
                 g2d.setColor(getHitResultColor(hitResult));
-                g2d.drawString(hitResult, windowWidth / 2 - g2d.getFontMetrics().stringWidth(hitResult)/2, 80);
+                if (hitResult != measuredHitResult) { // 結果改變時才重新量測文字寬度
+                    measuredHitResult = hitResult;
+                    measuredHitResultWidth = getFontMetrics(HIT_RESULT_FONT).stringWidth(hitResult);
+                }
+                g2d.drawString(hitResult, windowWidth / 2 - measuredHitResultWidth/2, 80);
             }
+        } else if (isLoading) {
+            g2d.setFont(HELP_FONT);
+            g2d.drawString("Loading pitches...", 20, 50);
         } else {
-            g2d.setFont(new Font("Arial", Font.PLAIN, 11));
-            String pitchList = "Pitches: ";
-            Object[] availablePitches = pitchDatabase.keySet().toArray();
-            for(int i = 0; i < availablePitches.length; i++) {
-                pitchList += (i + 1) + "=" + availablePitches[i] + " ";
-            }
-            g2d.drawString(pitchList, 20, 50);
+            g2d.setFont(PITCH_LIST_FONT);
+            g2d.drawString(hudPitchList, 20, 50);
             
-            g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-            g2d.drawString("M=Menu | C=Change Pitcher | Space=Reset | ESC=Pause", 20, 70); // 新增 C 鍵提示
+            g2d.setFont(HELP_FONT);
+            g2d.drawString("M=Menu | C=Change Pitcher | Space=Reset | ESC=Pause | H=Heatmap", 20, 70); // 新增 C 鍵提示
             
-            // 顯示當前球種的具體數據 (速度)
-            TrajectoryData displayData = null;
-            if (!pitchType.equals("none") && pitchDatabase.containsKey(pitchType)) {
-                displayData = pitchDatabase.get(pitchType);
-            } else if (!pitchDatabase.isEmpty()) {
-                // 如果沒有明確選擇球種，顯示列表中的第一個球種數據
-                displayData = pitchDatabase.values().iterator().next();
+            if (hudSpeed != null) {
+                g2d.drawString(hudSpeed, 20, 90);
             }
 
-            if (displayData != null) {
-                g2d.drawString("Speed: " + String.format("%.1f mph", displayData.getSpeed()), 20, 90);
-            }
+            if(isPitching) g2d.drawString(hudPitchingStatus, 20, 110);
+            else if(ballReachedCatcher) g2d.drawString(lastPitchStrike ? "Ball reached catcher: Strike" : "Ball reached catcher: Ball", 20, 110);
+            else g2d.drawString(hudSelectStatus, 20, 110);
+        }
+    }
 
-            if(isPitching) g2d.drawString("Pitching: " + pitchType, 20, 110);
-            else if(ballReachedCatcher) g2d.drawString("Ball reached catcher.", 20, 110);
-            else g2d.drawString("Select Pitch (1-" + availablePitches.length + "), Aim.", 20, 110);
+    // 右下角的效能疊圖 (F3)
+    private void drawProfiler(Graphics2D g2d, String[] lines) {
+        g2d.setColor(HUD_BACKGROUND_COLOR);
+        g2d.fillRoundRect(PROFILER_LEFT, PROFILER_TOP, PROFILER_WIDTH, PROFILER_HEIGHT, 10, 10);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(PROFILER_FONT);
+        if (lines == null) {
+            g2d.drawString("Collecting frame times...", PROFILER_LEFT + 10, PROFILER_TOP + 20);
+            return;
+        }
+        for (int i = 0; i < lines.length; i++) {
+            g2d.drawString(lines[i], PROFILER_LEFT + 10, PROFILER_TOP + 20 + i * 16);
         }
     }
 
     private void drawBall(Graphics2D g2d) {
-        Point ballPos = project3D(x_ft, y_ft, z_ft);
-        if (ballPos == null) return;
+        if (!project3D(x_ft, y_ft, z_ft, projected)) return;
         int ballSize = calculateBallSize(z_ft);
-        if (ballImage != null) {
-            g2d.drawImage(ballImage, ballPos.x - ballSize/2, ballPos.y - ballSize/2, ballSize, ballSize, null);
+        int left = projected[0] - ballSize/2, top = projected[1] - ballSize/2;
+        if (ballSprites != null && ballSize <= ballSprites.getMaxSize()) {
+            g2d.drawImage(ballSprites.get(ballSize), left, top, null); // 不縮放的貼圖
+        } else if (ballSprites != null) {
+            g2d.drawImage(ballSprites.get(ballSize), left, top, ballSize, ballSize, null);
         } else {
             g2d.setColor(Color.WHITE);
-            g2d.fillOval(ballPos.x - ballSize/2, ballPos.y - ballSize/2, ballSize, ballSize);
+            g2d.fillOval(left, top, ballSize, ballSize);
         }
     }
     
@@ -464,16 +1163,48 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
 
         aimX_ft = worldTargetMinX + percentX * (worldTargetMaxX - worldTargetMinX);
         aimY_ft = worldTargetMinY + (1 - percentY) * (worldTargetMaxY - worldTargetMinY); // (1 - percentY) 使滑鼠向上移動時 Y 值增大
+        updateStrikeChance();
+    }
+
+    // 模擬落點熱圖，繪製在 HUD 下方；摘要文字由 drawUI 顯示
+    private void drawLocationHeatmap(Graphics2D g2d) {
+        LocationOverlay overlay = locationOverlay;
+        if (overlay != null) {
+            g2d.drawImage(overlay.heatLayer, overlay.left, overlay.top, null);
+        }
+    }
+
+    // 好球機率熱圖、預期落點範圍 (1σ 與 2σ 橢圓) 與準星旁的好球機率
+    private void drawCommandOverlay(Graphics2D g2d) {
+        CommandOverlay overlay = currentCommandOverlay();
+        if (!showHeatOverlay || overlay == null) return;
+        g2d.drawImage(overlay.heatLayer, overlay.left, overlay.top, null);
+
+        g2d.setColor(SPREAD_COLOR);
+        g2d.setStroke(SPREAD_STROKE);
+        for (int k = 1; k <= 2; k++) {
+            double dx = k * overlay.grid.getSigmaX(), dy = k * overlay.grid.getSigmaY();
+            if (!project3D(aimX_ft - dx, aimY_ft + dy, endZ_ft, projected)) return;
+            int left = projected[0], top = projected[1];
+            if (!project3D(aimX_ft + dx, aimY_ft - dy, endZ_ft, projected)) return;
+            g2d.drawOval(left, top, projected[0] - left, projected[1] - top);
+        }
+
+        if (hudStrikeChance != null && project3D(aimX_ft, aimY_ft, endZ_ft, projected)) {
+            g2d.setFont(HELP_FONT);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(hudStrikeChance, projected[0] + 18, projected[1] - 18);
+        }
     }
     
     private void drawAimingReticle(Graphics2D g2d) {
-        Point screenPos = project3D(aimX_ft, aimY_ft, endZ_ft);
-        if (screenPos == null) return;
-        g2d.setColor(new Color(255, 0, 0, 150)); // 半透明紅色
-        g2d.setStroke(new BasicStroke(2));
-        int size = 15;
-        g2d.drawLine(screenPos.x - size, screenPos.y, screenPos.x + size, screenPos.y);
-        g2d.drawLine(screenPos.x, screenPos.y - size, screenPos.x, screenPos.y + size);
+        if (!project3D(aimX_ft, aimY_ft, endZ_ft, projected)) return;
+        g2d.setColor(RETICLE_COLOR);
+        g2d.setStroke(RETICLE_STROKE);
+        int size = RETICLE_SIZE;
+        int sx = projected[0], sy = projected[1];
+        g2d.drawLine(sx - size, sy, sx + size, sy);
+        g2d.drawLine(sx, sy - size, sx, sy + size);
     }
     
     private void setupKeyBindings() {
@@ -505,24 +1236,41 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "pauseAction");
         actionMap.put("pauseAction", new PauseAction());
 
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_H, 0), "toggleOverlayAction");
+        actionMap.put("toggleOverlayAction", new ToggleOverlayAction());
+
+        // F3 切換效能疊圖
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "toggleProfilerAction");
+        actionMap.put("toggleProfilerAction", new ToggleProfilerAction());
+
         // 新增 'C' 鍵綁定，返回投手選擇介面
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, 0), "changePitcherAction");
         actionMap.put("changePitcherAction", new ChangePitcherAction());
     }
 
-    // 抽象類別，方便統一管理遊戲動作
-    private abstract class GameAction extends AbstractAction { }
+    // 抽象類別，方便統一管理遊戲動作；動作在狀態鎖內執行
+    private abstract class GameAction extends AbstractAction {
+        @Override
+        public final void actionPerformed(ActionEvent e) {
+            synchronized (stateLock) {
+                perform(e);
+            }
+        }
+
+        protected abstract void perform(ActionEvent e);
+    }
 
     private class SwingAction extends GameAction {
         @Override
-        public void actionPerformed(ActionEvent e) {
+        protected void perform(ActionEvent e) {
             if (isHittingMode) {
                 if (hitResult != null) { // 如果有打擊結果，表示本球局結束，按空格重置
                     resetPitch();
                 } else if (isPitching && !swingAttempted) {
                     swingAttempted = true;
-                    // 計算揮棒時機
-                    double swingTimeRatio = (startZ_ft - z_ft) / (startZ_ft - endZ_ft);
+                    long pressedNanos = takeSwingKeyNanos();
+                    // 計算揮棒時機：以按鍵當下的時間直接求封閉解，不受幀間距影響
+                    double swingTimeRatio = swingTimeRatioAt(pressedNanos);
                     final double PERFECT_START = 0.91, PERFECT_END = 0.97;
                     final double GOOD_START = 0.86, GOOD_END = 1.0;
                     final double OK_START = 0.82, OK_END = 1.04;
@@ -540,6 +1288,11 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
                     } else {
                         hitResult = "Miss";
                     }
+                    long latency = clock.getAsLong() - pressedNanos;
+                    inputLatency.record(latency);
+                    metrics.recordInputLatency(latency); // 累計的分佈由 JMX (InputLatencyP50/P99Millis) 提供
+                    hudLatency = String.format(Locale.ROOT, "Swing at %.3f of flight | input latency %.2f ms (avg %.2f)",
+                            swingTimeRatio, inputLatency.getLastMillis(), inputLatency.getMeanMillis());
                 }
             }
         }
@@ -551,15 +1304,13 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
             this.pitchNumber = number; 
         }
         @Override
-        public void actionPerformed(ActionEvent e) {
+        protected void perform(ActionEvent e) {
             if (!isHittingMode) {
-                // 從當前投手的 pitchDatabase 中獲取球種列表
-                String[] availablePitches = pitchDatabase.keySet().toArray(new String[0]);
-                // 檢查按下的數字是否在有效範圍內
-                if (pitchNumber >= 1 && pitchNumber <= availablePitches.length) {
-                    startPitch(availablePitches[pitchNumber - 1]); // 陣列索引從 0 開始
+                // 數字鍵直接對應 arsenal 的槽位 (依 BID 排序，順序固定)
+                if (pitchNumber >= 1 && pitchNumber <= arsenal.size()) {
+                    startPitch(pitchNumber - 1); // 槽位從 0 開始
                 } else {
-                    System.out.println("Invalid pitch selection. Available pitches are 1 to " + availablePitches.length);
+                    System.out.println("Invalid pitch selection. Available pitches are 1 to " + arsenal.size());
                 }
             }
         }
@@ -570,14 +1321,15 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
 
     private class ResetAction extends GameAction {
         @Override
-        public void actionPerformed(ActionEvent e) {
+        protected void perform(ActionEvent e) {
             if (!isHittingMode) { // 只在投球模式下按空格是重置投球
                 resetPitch();
             }
         }
     }
 
-    private class MenuAction extends GameAction {
+    // 切換畫面的動作不持有狀態鎖，避免移除面板時與遊戲迴圈互相等待
+    private class MenuAction extends AbstractAction {
         @Override
         public void actionPerformed(ActionEvent e) {
             Main.showStartScreen(mainFrame); // 返回主菜單
@@ -586,12 +1338,109 @@ public class GamePanel extends JPanel { // 將 MLBsim 改名為 GamePanel
 
     private class PauseAction extends GameAction {
         @Override
-        public void actionPerformed(ActionEvent e) {
+        protected void perform(ActionEvent e) {
             togglePause(); // 暫停/恢復遊戲
         }
     }
 
-    private class ChangePitcherAction extends GameAction {
+    private class ToggleOverlayAction extends GameAction {
+        @Override
+        protected void perform(ActionEvent e) {
+            showHeatOverlay = !showHeatOverlay;
+            if (isHittingMode && showHeatOverlay && locationOverlay == null && pendingHeatmap == null) {
+                computeLocationHeatmap();
+            }
+            repaint();
+        }
+    }
+
+    private class ToggleProfilerAction extends AbstractAction {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            showProfiler = !showProfiler;
+            profilerBase = null;
+            profilerText = null;
+            repaint();
+        }
+    }
+
+    // 某個球種的好球機率表與預先投影到螢幕大小的熱圖，在背景執行緒建立
+    private static final class CommandOverlay {
+        final StrikeProbabilityGrid grid;
+        final BufferedImage heatLayer;
+        final int left, top;
+
+        private CommandOverlay(StrikeProbabilityGrid grid, BufferedImage heatLayer, int left, int top) {
+            this.grid = grid;
+            this.heatLayer = heatLayer;
+            this.left = left;
+            this.top = top;
+        }
+
+        // 熱圖直接以螢幕像素取樣，繪製時不需要縮放
+        static CommandOverlay build(Camera camera, StrikeProbabilityGrid grid, double plateZ_ft) {
+            int[] corner = new int[2];
+            camera.project(StrikeProbabilityGrid.MIN_X_FT, StrikeProbabilityGrid.MAX_Y_FT, plateZ_ft, corner);
+            int left = corner[0], top = corner[1];
+            camera.project(StrikeProbabilityGrid.MAX_X_FT, StrikeProbabilityGrid.MIN_Y_FT, plateZ_ft, corner);
+            int width = Math.max(1, corner[0] - left), height = Math.max(1, corner[1] - top);
+
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            double spanX = StrikeProbabilityGrid.MAX_X_FT - StrikeProbabilityGrid.MIN_X_FT;
+            double spanY = StrikeProbabilityGrid.MAX_Y_FT - StrikeProbabilityGrid.MIN_Y_FT;
+            int[] row = new int[width];
+            for (int py = 0; py < height; py++) {
+                double y_ft = StrikeProbabilityGrid.MAX_Y_FT - (py + 0.5) / height * spanY;
+                for (int px = 0; px < width; px++) {
+                    double x_ft = StrikeProbabilityGrid.MIN_X_FT + (px + 0.5) / width * spanX;
+                    row[px] = heatColor(grid.probabilityAt(x_ft, y_ft));
+                }
+                image.setRGB(0, py, width, 1, row, 0, width);
+            }
+            return new CommandOverlay(grid, image, left, top);
+        }
+
+        // 機率低為藍色、高為紅色；幾乎不可能是好球的區域透明
+        private static int heatColor(double p) {
+            if (p < 0.05) return 0;
+            int alpha = (int) (20 + 110 * p);
+            int red = (int) (255 * p);
+            int blue = 255 - red;
+            return (alpha << 24) | (red << 16) | (64 << 8) | blue;
+        }
+    }
+
+    // 模擬落點熱圖，預先縮放到本壘板平面在螢幕上的大小
+    private static final class LocationOverlay {
+        final BufferedImage heatLayer;
+        final int left, top;
+        final String summary;
+
+        private LocationOverlay(BufferedImage heatLayer, int left, int top, String summary) {
+            this.heatLayer = heatLayer;
+            this.left = left;
+            this.top = top;
+            this.summary = summary;
+        }
+
+        static LocationOverlay build(Camera camera, Heatmap heatmap, double plateZ_ft) {
+            int[] corner = new int[2];
+            camera.project(Heatmap.MIN_X_FT, Heatmap.MAX_Y_FT, plateZ_ft, corner);
+            int left = corner[0], top = corner[1];
+            camera.project(Heatmap.MAX_X_FT, Heatmap.MIN_Y_FT, plateZ_ft, corner);
+            int width = Math.max(1, corner[0] - left), height = Math.max(1, corner[1] - top);
+
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(HeatmapExport.toImage(heatmap, 1, true), 0, 0, width, height, null);
+            g.dispose();
+            String summary = String.format(Locale.ROOT, "Simulated %,d pitches: strike %.1f%%", heatmap.getPitches(), heatmap.getStrikeRate() * 100);
+            return new LocationOverlay(image, left, top, summary);
+        }
+    }
+
+    private class ChangePitcherAction extends AbstractAction {
         @Override
         public void actionPerformed(ActionEvent e) {
             if (!isHittingMode) { // 只有在投球模式下才允許切換投手
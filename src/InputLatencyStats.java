@@ -0,0 +1,18 @@
+// 輸入到判定的延遲統計 (按鍵事件時間戳記 -> 揮棒判定完成)，提供 HUD 顯示的最近一次與平均值
+// 百分位數由 GameMetrics 的直方圖提供 (JMX)；只在 EDT 上使用
+public class InputLatencyStats {
+    private long count = 0;
+    private long totalNanos = 0;
+    private long lastNanos = 0;
+
+    public void record(long latencyNanos) {
+        latencyNanos = Math.max(0, latencyNanos);
+        count++;
+        totalNanos += latencyNanos;
+        lastNanos = latencyNanos;
+    }
+
+    public long getCount() { return count; }
+    public double getLastMillis() { return lastNanos / 1_000_000.0; }
+    public double getMeanMillis() { return count == 0 ? 0 : totalNanos / 1_000_000.0 / count; }
+}
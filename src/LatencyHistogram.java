@@ -0,0 +1,110 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 無鎖的對數-線性直方圖 (HDR Histogram 的簡化版)：每個 2 的次方區間再細分 SUB_BUCKETS 格，相對誤差約 3%
+// record 只有幾次原子遞增，任何執行緒都可以同時記錄；百分位數由快照計算，兩個快照相減就是這段期間的分佈
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40; // 2^41 以上的值記在最後一格 (奈秒約 36 分鐘)
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) { }
+    }
+
+    // 不是原子操作：同時記錄的樣本可能部分保留
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    public long getCount() { return count.get(); }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.get(), max.get());
+    }
+
+    // 小於 SUB_BUCKETS 的值各佔一格；之後每個 2 的次方區間平均切成 SUB_BUCKETS 格
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int row = exponent - SUB_BITS + 1;
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return Math.min(BUCKETS - 1, row * SUB_BUCKETS + sub);
+    }
+
+    static long lowerBound(int bucket) {
+        int row = bucket / SUB_BUCKETS, sub = bucket % SUB_BUCKETS;
+        return row == 0 ? sub : (long) (SUB_BUCKETS + sub) << (row - 1);
+    }
+
+    // 某個時間點的分佈；不可變更
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        // 兩個快照之間記錄的樣本；最大值以最高的非空格的上界估計
+        public Snapshot since(Snapshot earlier) {
+            long[] diff = new long[counts.length];
+            long total = 0;
+            int highest = -1;
+            for (int i = 0; i < diff.length; i++) {
+                diff[i] = counts[i] - earlier.counts[i];
+                total += diff[i];
+                if (diff[i] > 0) highest = i;
+            }
+            long intervalMax = highest < 0 ? 0 : Math.min(max, upperBound(highest));
+            return new Snapshot(diff, total, sum - earlier.sum, intervalMax);
+        }
+
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+        public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+
+        // percentile 為 0~100；回傳所在格的中點
+        public long getPercentile(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, (lowerBound(i) + upperBound(i)) / 2);
+                }
+            }
+            return max;
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket + 1 < BUCKETS ? lowerBound(bucket + 1) - 1 : Long.MAX_VALUE;
+        }
+    }
+}
@@ -15,36 +15,34 @@ public class Main { // 或者 BaseballGame
 
             frame.setVisible(true);
         });
+
+        // 在背景預先載入投手與球種數據，之後切換畫面不再查詢資料庫
+        PitcherRepository.getInstance().preload();
+    }
+
+    // 所有畫面由同一個 ScreenManager 建立與重複使用
+    private static ScreenManager screens;
+
+    private static ScreenManager screens(JFrame frame) {
+        if (screens == null) {
+            screens = new ScreenManager(frame);
+        }
+        return screens;
     }
 
     // 這個方法會從 StartScreenPanel 和未來的其他面板中調用
     public static void showStartScreen(JFrame frame) {
-        frame.getContentPane().removeAll();
-        StartScreenPanel startScreen = new StartScreenPanel(frame);
-        frame.add(startScreen);
-        frame.revalidate();
-        frame.repaint();
+        screens(frame).showStartScreen();
     }
 
     // 顯示投手選擇畫面
     public static void showPitchSelectionScreen(JFrame frame) {
-        frame.getContentPane().removeAll();
-        PitchSelectionPanel selectionPanel = new PitchSelectionPanel(frame);
-        frame.add(selectionPanel);
-        frame.revalidate();
-        frame.repaint();
-        selectionPanel.requestFocusInWindow(); // 確保面板獲得焦點
+        screens(frame).showPitchSelectionScreen();
     }
 
-    // 修改 showGamePanel 以接收 Pitcher 物件
+    // 進入遊戲畫面；同一個 GamePanel 以新的模式與投手重新設定
     public static void showGamePanel(JFrame frame, boolean isHittingMode, Pitcher selectedPitcher) {
-        frame.getContentPane().removeAll();
-        // 這裡的 GamePanel 將需要修改其構造函數以接收 selectedPitcher
-        GamePanel gamePanel = new GamePanel(isHittingMode, frame, selectedPitcher);
-        frame.add(gamePanel);
-        frame.revalidate();
-        frame.repaint();
-        gamePanel.requestFocusInWindow();
+        screens(frame).showGamePanel(isHittingMode, selectedPitcher);
     }
 
     // 重載一個沒有 Pitcher 參數的方法，用於 Hitting Mode
@@ -0,0 +1,81 @@
+import data.Pitcher;
+import data.PitcherFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import javax.swing.AbstractListModel;
+
+// 分頁載入的投手列表：依 PID 做 keyset 分頁，捲動到接近結尾時才在背景載入下一頁
+// JList 只繪製可見的列，搭配固定列高，投手數量再多也只有已載入的頁面佔用記憶體
+public class PagedPitcherListModel extends AbstractListModel<Pitcher> {
+    public static final int PAGE_SIZE = 200;
+    private static final int PREFETCH_ROWS = 50; // 距離已載入的結尾不到這麼多列時載入下一頁
+
+    private final PitcherRepository repository;
+    private final PitcherFilter filter;
+    private final List<Pitcher> rows = new ArrayList<>();
+    private final Runnable onPageLoaded;
+    private final Consumer<Throwable> onFailure;
+    private CompletableFuture<List<Pitcher>> pending; // 進行中的分頁查詢
+    private boolean exhausted; // 已經載入最後一頁
+
+    public PagedPitcherListModel(PitcherRepository repository, PitcherFilter filter,
+                                 Runnable onPageLoaded, Consumer<Throwable> onFailure) {
+        this.repository = repository;
+        this.filter = filter;
+        this.onPageLoaded = onPageLoaded;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public int getSize() {
+        return rows.size();
+    }
+
+    @Override
+    public Pitcher getElementAt(int index) {
+        return rows.get(index);
+    }
+
+    // 畫面顯示到 lastVisibleIndex 時呼叫 (EDT)
+    public void ensureLoaded(int lastVisibleIndex) {
+        if (lastVisibleIndex >= rows.size() - PREFETCH_ROWS) {
+            loadNextPage();
+        }
+    }
+
+    public void loadNextPage() {
+        if (exhausted || pending != null) return;
+        int afterPid = rows.isEmpty() ? Integer.MIN_VALUE : rows.get(rows.size() - 1).getPid();
+        CompletableFuture<List<Pitcher>> page = repository.getPitcherPageAsync(filter, afterPid, PAGE_SIZE);
+        pending = page;
+        DataLoader.onEdt(page, pitchers -> {
+            if (pending != page) return;
+            pending = null;
+            if (pitchers.size() < PAGE_SIZE) exhausted = true;
+            if (!pitchers.isEmpty()) {
+                int first = rows.size();
+                rows.addAll(pitchers);
+                fireIntervalAdded(this, first, rows.size() - 1);
+            }
+            onPageLoaded.run();
+        }, error -> {
+            if (pending != page) return;
+            pending = null;
+            onFailure.accept(error);
+        });
+    }
+
+    public boolean isLoading() { return pending != null; }
+    public boolean isExhausted() { return exhausted; }
+    public PitcherFilter getFilter() { return filter; }
+
+    // 換掉模型 (改變篩選條件) 或離開畫面時取消進行中的查詢
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+import data.CsvRowReader;
+import data.PitchAggregator;
+import data.Pitcher;
+import data.RowReader;
+import data.TrajectoryData;
+import data.XlsxRowReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import sim.AeroModel;
+import sim.CommandModel;
+import sim.PitchSimulator;
+
+// 逐球追蹤資料的批次匯入：串流讀取 CSV / XLSX，依 (PID, BID) 彙總後 upsert 到 PITCHER 與 TRAJECTORY
+// 欄位可以是 Statcast 的名稱 (pitcher, player_name, p_throws, pitch_type, release_speed, release_pos_x,
+// release_pos_z, pfx_x, pfx_z)，也可以是資料庫的名稱 (PID, PNAME, LR, BID, SPEED, REX, REY, HMOV, VMOV)
+// 用法: java PitchDataImporter [--dry-run] [--min-pitches N] 檔案.csv|檔案.xlsx ...
+public class PitchDataImporter {
+    // Statcast 球種代碼對應 BALLTYPE 的 BID；其他代碼 (KN、EP、PO 等) 略過
+    private static final Map<String, Integer> STATCAST_PITCH_TYPES = new HashMap<>();
+
+    static {
+        STATCAST_PITCH_TYPES.put("FF", 1); // 4SEAMFAST
+        STATCAST_PITCH_TYPES.put("FA", 1);
+        STATCAST_PITCH_TYPES.put("SL", 2); // SLIDER
+        STATCAST_PITCH_TYPES.put("CU", 3); // CURVE
+        STATCAST_PITCH_TYPES.put("KC", 3);
+        STATCAST_PITCH_TYPES.put("CS", 3);
+        STATCAST_PITCH_TYPES.put("CH", 4); // CHANGE
+        STATCAST_PITCH_TYPES.put("SI", 5); // SINKER
+        STATCAST_PITCH_TYPES.put("FT", 5);
+        STATCAST_PITCH_TYPES.put("FS", 6); // SPLIT
+        STATCAST_PITCH_TYPES.put("FO", 6);
+        STATCAST_PITCH_TYPES.put("ST", 7); // SWEEPER
+        STATCAST_PITCH_TYPES.put("SV", 7);
+        STATCAST_PITCH_TYPES.put("FC", 8); // CUTTER
+    }
+
+    public static void main(String[] args) {
+        boolean dryRun = false;
+        int minPitches = 1;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--dry-run".equals(args[i])) {
+                dryRun = true;
+            } else if ("--min-pitches".equals(args[i]) && i + 1 < args.length) {
+                minPitches = Integer.parseInt(args[++i]);
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: java PitchDataImporter [--dry-run] [--min-pitches N] file.csv|file.xlsx ...");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        PitchAggregator aggregator = new PitchAggregator();
+        long rows = 0, skipped = 0;
+        for (String file : files) {
+            try (RowReader reader = open(file)) {
+                ImportStats stats = importRows(reader, aggregator);
+                rows += stats.rows;
+                skipped += stats.skipped;
+                System.out.printf("%s: %,d rows, %,d skipped%n", file, stats.rows, stats.skipped);
+            } catch (IOException e) {
+                System.err.println("Error reading " + file + ": " + e.getMessage());
+                return;
+            }
+        }
+        double readSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        List<TrajectoryData> trajectories = aggregator.getTrajectories(minPitches);
+        System.out.printf("Aggregated %,d pitches (%,d rows, %,d skipped) into %,d pitchers / %,d pitch types in %.2f s (%,.0f rows/s)%n",
+                aggregator.getPitches(), rows, skipped, aggregator.getPitcherCount(), trajectories.size(),
+                readSeconds, rows / Math.max(readSeconds, 1e-9));
+
+        if (dryRun) {
+            printSummary(aggregator, minPitches);
+            return;
+        }
+
+        List<Pitcher> pitchers = new ArrayList<>();
+        for (int pid : aggregator.getPitcherIds()) {
+            if (aggregator.getGroups(pid, minPitches).isEmpty()) continue;
+            String name = aggregator.getName(pid);
+            String hand = aggregator.getHand(pid);
+            // 新投手以中等能力值建立，之後可以手動調整
+            pitchers.add(new Pitcher(pid, 0, name != null ? name : "PID " + pid, 0, hand != null ? hand : "R",
+                    CommandModel.DEFAULT_RATING, CommandModel.DEFAULT_RATING, 0));
+        }
+        // 寫入 data.store 指定的資料庫 (MySQL 或內嵌資料庫)；快照檔是唯讀的
+        PitcherStore store = PitcherStore.fromSystemProperties();
+        if (!(store instanceof DatabaseManager)) {
+            System.err.println("Cannot import into " + store.describe() + "; use data.store=mysql or data.store=embedded");
+            return;
+        }
+        long writeStart = System.nanoTime();
+        try {
+            ((DatabaseManager) store).upsertPitchData(pitchers, trajectories);
+        } catch (SQLException e) {
+            System.err.println("Error writing pitch data to " + store.describe() + ": " + e.getMessage());
+            return;
+        }
+        System.out.printf("Upserted %,d pitchers and %,d trajectories in %.2f s%n",
+                pitchers.size(), trajectories.size(), (System.nanoTime() - writeStart) / 1_000_000_000.0);
+        // 匯入在另一個行程執行，已開啟的遊戲仍使用快取的投手數據
+        System.out.println("A running game keeps its cached pitchers until reloaded (F5 on the pitcher selection screen).");
+    }
+
+    private static RowReader open(String file) throws IOException {
+        String lower = file.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".xlsx")) {
+            return new XlsxRowReader(file);
+        }
+        if (lower.endsWith(".xls")) {
+            throw new IOException("Legacy .xls (BIFF) workbooks are not supported; save the sheet as .xlsx or .csv");
+        }
+        return new CsvRowReader(Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8));
+    }
+
+    private static final class ImportStats {
+        long rows;
+        long skipped;
+    }
+
+    // 第一列為欄名；缺少必要欄位、數值空白或無法辨識球種的列計入 skipped
+    static ImportStats importRows(RowReader reader, PitchAggregator aggregator) throws IOException {
+        ImportStats stats = new ImportStats();
+        String[] header = reader.next();
+        while (header != null && isBlank(header)) {
+            header = reader.next();
+        }
+        if (header == null) return stats;
+        Columns columns = Columns.resolve(header);
+
+        String[] row;
+        while ((row = reader.next()) != null) {
+            if (isBlank(row)) continue;
+            stats.rows++;
+            try {
+                int bid = columns.bid(row);
+                double speed = Double.parseDouble(cell(row, columns.speed));
+                double rex = Double.parseDouble(cell(row, columns.rex));
+                double rey = Double.parseDouble(cell(row, columns.rey));
+                double hmov = Double.parseDouble(cell(row, columns.hmov));
+                double vmov = Double.parseDouble(cell(row, columns.vmov));
+                if (bid <= 0 || !(speed > 0)) {
+                    stats.skipped++;
+                    continue;
+                }
+                if (columns.statcastMovement) {
+                    hmov *= 12;
+                    vmov = vmov * 12 - gravityDrop_in(speed);
+                }
+                aggregator.add((int) Double.parseDouble(cell(row, columns.pid)), cell(row, columns.name), cell(row, columns.hand),
+                        bid, speed, rex, rey, hmov, vmov);
+            } catch (NumberFormatException e) {
+                stats.skipped++;
+            }
+        }
+        return stats;
+    }
+
+    // Statcast 的 pfx_z 已扣除重力；資料庫的 VMOV 含重力，與遊戲的封閉解使用相同的飛行時間換算
+    static double gravityDrop_in(double speed_mph) {
+        double flightTime = (PitchSimulator.PITCHER_MOUND_DISTANCE_FT - PitchSimulator.HOME_PLATE_FRONT_FT)
+                / (speed_mph * PitchSimulator.MPH_TO_FTS);
+        return 0.5 * AeroModel.GRAVITY_FTS2 * flightTime * flightTime * 12;
+    }
+
+    private static String cell(String[] row, int column) {
+        return column >= 0 && column < row.length ? row[column].trim() : "";
+    }
+
+    private static boolean isBlank(String[] row) {
+        for (String cell : row) {
+            if (!cell.trim().isEmpty()) return false;
+        }
+        return true;
+    }
+
+    private static void printSummary(PitchAggregator aggregator, int minPitches) {
+        System.out.printf("%-8s %-24s %4s %8s %7s %7s %7s %7s %7s %7s%n",
+                "PID", "NAME", "BID", "PITCHES", "USEP", "SPEED", "REX", "REY", "HMOV", "VMOV");
+        for (TrajectoryData t : aggregator.getTrajectories(minPitches)) {
+            long count = 0;
+            double sdSpeed = 0;
+            for (PitchAggregator.Group group : aggregator.getGroups(t.getPid(), minPitches)) {
+                if (group.getBid() == t.getBid()) {
+                    count = group.getCount();
+                    sdSpeed = group.getSpeed().getStdDev();
+                }
+            }
+            String name = aggregator.getName(t.getPid());
+            System.out.printf("%-8d %-24s %4d %8d %6.1f%% %7.1f %7.2f %7.2f %7.1f %7.1f  (speed sd %.1f)%n",
+                    t.getPid(), name != null ? name : "", t.getBid(), count, t.getUsep(), t.getSpeed(),
+                    t.getRex(), t.getRey(), t.getHmov(), t.getVmov(), sdSpeed);
+        }
+    }
+
+    // 欄名對應 (不分大小寫)：每個欄位接受 Statcast 或資料庫的名稱
+    private static final class Columns {
+        int pid, name, hand, pitchType, bid, speed, rex, rey, hmov, vmov;
+        boolean statcastMovement; // pfx_x / pfx_z：英呎、不含重力
+
+        static Columns resolve(String[] header) throws IOException {
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                index.putIfAbsent(header[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            Columns c = new Columns();
+            c.pid = find(index, "pitcher", "pid");
+            c.name = find(index, "player_name", "pname");
+            c.hand = find(index, "p_throws", "lr");
+            c.pitchType = find(index, "pitch_type");
+            c.bid = find(index, "bid");
+            c.speed = find(index, "release_speed", "speed");
+            c.rex = find(index, "release_pos_x", "rex");
+            c.rey = find(index, "release_pos_z", "rey");
+            c.hmov = find(index, "pfx_x");
+            c.vmov = find(index, "pfx_z");
+            c.statcastMovement = c.hmov >= 0 && c.vmov >= 0;
+            if (!c.statcastMovement) {
+                c.hmov = find(index, "hmov");
+                c.vmov = find(index, "vmov");
+            }
+            if (c.pid < 0 || (c.pitchType < 0 && c.bid < 0) || c.speed < 0 || c.rex < 0 || c.rey < 0 || c.hmov < 0 || c.vmov < 0) {
+                throw new IOException("Missing required columns; need pitcher/PID, pitch_type/BID, release_speed/SPEED, "
+                        + "release_pos_x/REX, release_pos_z/REY and pfx_x+pfx_z or HMOV+VMOV");
+            }
+            return c;
+        }
+
+        int bid(String[] row) {
+            if (bid >= 0) return (int) Double.parseDouble(cell(row, bid));
+            Integer mapped = STATCAST_PITCH_TYPES.get(cell(row, pitchType).toUpperCase(Locale.ROOT));
+            return mapped != null ? mapped : -1;
+        }
+
+        private static int find(Map<String, Integer> index, String... names) {
+            for (String name : names) {
+                Integer column = index.get(name);
+                if (column != null) return column;
+            }
+            return -1;
+        }
+    }
+}
@@ -1,17 +1,61 @@
+import data.Arsenal;
 import data.Pitcher;
+import data.PitcherCatalog;
+import data.PitcherFilter;
+import data.PitcherSearchIndex;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import sim.Camera;
+import sim.TunnelAnalyzer;
+import sim.TunnelPair;
 
-public class PitchSelectionPanel extends JPanel {
+public class PitchSelectionPanel extends JPanel implements Screen {
     private JFrame mainFrame;
-    private DatabaseManager dbManager;
+    private PitcherRepository repository;
     private JList<Pitcher> pitcherList;
-    private DefaultListModel<Pitcher> listModel;
+    private PagedPitcherListModel pagedModel; // 沒有搜尋文字時：依 PID 分頁載入
+    private JLabel statusLabel;
+    private JButton selectButton;
+    private CompletableFuture<Arsenal> pendingLoad; // 進行中的非同步載入 (選取投手的球種，隧道效應分析用)
+
+    // 搜尋與篩選：輸入停頓 SEARCH_DELAY_MILLIS 後才更新列表
+    private static final int SEARCH_DELAY_MILLIS = 150;
+    private static final int SEARCH_LIMIT = 500; // 搜尋結果最多顯示的筆數
+    private JTextField searchField;
+    private JTextField teamField;
+    private JComboBox<String> handBox;
+    private JTextField yearField;
+    private Timer searchTimer;
+    private CompletableFuture<PitcherSearchIndex> pendingIndex;
+
+    // 投手數據重新載入後，下次顯示時重建列表與隧道效應表
+    private boolean stale = true;
+    private boolean searchInterrupted; // pause 時還有搜尋沒有完成
+    private final Runnable invalidationListener = () -> SwingUtilities.invokeLater(() -> stale = true);
+
+    // 球種隧道效應：只分析選取的投手；所有面板共用同一個分析器，結果依 PID 快取
+    private static final TunnelAnalyzer tunnelAnalyzer =
+            new TunnelAnalyzer(Camera.BATTER_VIEW, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long TUNNEL_TIMEOUT_MILLIS = 60_000;
+    private CompletableFuture<List<TunnelPair>> pendingTunnels;
+    private int pendingTunnelPid = -1; // 載入或分析中的投手
+    private final Map<Integer, List<TunnelPair>> tunnels = new HashMap<>(); // PID -> 已分析的組合
+    private DefaultTableModel tunnelModel;
+    private JLabel tunnelStatus;
 
     public PitchSelectionPanel(JFrame frame) {
         this.mainFrame = frame;
-        this.dbManager = new DatabaseManager(); // 初始化資料庫管理器
+        this.repository = PitcherRepository.getInstance(); // 使用共用的投手數據快取
         setLayout(new BorderLayout());
         setBackground(new Color(135, 206, 235));
 
@@ -19,11 +63,15 @@ public class PitchSelectionPanel extends JPanel {
         title.setFont(new Font("Arial", Font.BOLD, 30));
         title.setForeground(Color.WHITE);
         title.setHorizontalAlignment(SwingConstants.CENTER);
-        add(title, BorderLayout.NORTH);
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.setOpaque(false);
+        northPanel.add(title, BorderLayout.NORTH);
+        northPanel.add(createFilterBar(), BorderLayout.SOUTH);
+        add(northPanel, BorderLayout.NORTH);
 
-        listModel = new DefaultListModel<>();
-        pitcherList = new JList<>(listModel);
+        pitcherList = new JList<>();
         pitcherList.setFont(new Font("Arial", Font.PLAIN, 20));
+        pitcherList.setFixedCellHeight(28); // 固定列高，JList 不需要逐列量測
         pitcherList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION); // 單選模式
         pitcherList.setCellRenderer(new DefaultListCellRenderer() { // 自定義渲染器，讓列表顯示更美觀
             @Override
@@ -40,10 +88,23 @@ public class PitchSelectionPanel extends JPanel {
 
         JScrollPane scrollPane = new JScrollPane(pitcherList);
         scrollPane.setPreferredSize(new Dimension(400, 300));
+        // 捲動時檢查是否接近已載入的結尾
+        scrollPane.getViewport().addChangeListener(e -> {
+            if (pagedModel != null && pitcherList.getModel() == pagedModel) {
+                pagedModel.ensureLoaded(pitcherList.getLastVisibleIndex());
+            }
+        });
         add(scrollPane, BorderLayout.CENTER);
+        add(createTunnelView(), BorderLayout.EAST);
+        pitcherList.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                selectButton.setEnabled(pitcherList.getSelectedValue() != null);
+                showTunnels();
+            }
+        });
 
         // 選擇按鈕
-        JButton selectButton = new JButton("choose this pitcher");
+        selectButton = new JButton("choose this pitcher");
         selectButton.setFont(new Font("Arial", Font.BOLD, 20));
         selectButton.addActionListener(e -> {
             Pitcher selectedPitcher = pitcherList.getSelectedValue();
@@ -56,6 +117,9 @@ public class PitchSelectionPanel extends JPanel {
             }
         });
         JPanel buttonPanel = new JPanel();
+        statusLabel = new JLabel();
+        statusLabel.setFont(new Font("Arial", Font.PLAIN, 16));
+        buttonPanel.add(statusLabel);
         buttonPanel.add(selectButton);
 
         // 返回菜單按鈕
@@ -64,19 +128,305 @@ public class PitchSelectionPanel extends JPanel {
         backButton.addActionListener(e -> Main.showStartScreen(mainFrame));
         buttonPanel.add(backButton);
 
+        // 重新讀取投手數據 (例如匯入新的追蹤資料之後)
+        JButton reloadButton = new JButton("reload data (F5)");
+        reloadButton.setFont(new Font("Arial", Font.BOLD, 20));
+        reloadButton.addActionListener(e -> reloadData());
+        buttonPanel.add(reloadButton);
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0), "reloadData");
+        getActionMap().put("reloadData", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                reloadData();
+            }
+        });
+
         add(buttonPanel, BorderLayout.SOUTH);
 
-        loadPitchers(); // 加載投手列表
+        selectButton.setEnabled(false);
+        repository.addInvalidationListener(invalidationListener);
+    }
+
+    // 畫面顯示：第一次或數據失效後重新載入；否則接著載入被 pause 中斷的工作
+    @Override
+    public void start() {
+        if (stale) {
+            stale = false;
+            tunnels.clear();
+            pagedModel = null;
+            updateList(); // 非同步加載第一頁投手，畫面先顯示
+        } else if (searchInterrupted) {
+            updateList();
+        } else if (pagedModel != null && pitcherList.getModel() == pagedModel) {
+            pagedModel.ensureLoaded(pitcherList.getLastVisibleIndex());
+        }
+        searchInterrupted = false;
+        showTunnels(); // pause 時中斷的分析重新開始
+    }
+
+    @Override
+    public void pause() {
+        searchInterrupted = pendingIndex != null || searchTimer.isRunning();
+        cancelPendingLoad();
+    }
+
+    @Override
+    public void dispose() {
+        cancelPendingLoad();
+        repository.removeInvalidationListener(invalidationListener);
+        tunnels.clear();
+        tunnelModel.setRowCount(0);
+        pitcherList.setModel(new DefaultListModel<>());
+        pagedModel = null;
+        stale = true;
+    }
+
+    // 已載入快照時 refresh() 重新查詢 (失敗時保留舊的快照)，否則 invalidate() 丟棄名稱索引
+    // 兩者都會通知失效監聽者：遊戲畫面清除軌跡快取，這個畫面標記 stale，之後的 start() 重建列表與隧道效應表
+    // 監聽者以 invokeLater 標記 stale，重建也排在 EDT 佇列之後才執行
+    private void reloadData() {
+        cancelPendingLoad();
+        statusLabel.setText("Reloading pitchers...");
+        if (!repository.isLoaded()) {
+            repository.invalidate();
+            SwingUtilities.invokeLater(this::start);
+            return;
+        }
+        PitcherCatalog previous = repository.getCatalog();
+        CompletableFuture<PitcherCatalog> refresh = DataLoader.load(repository::refresh);
+        DataLoader.onEdt(refresh, catalog -> {
+            if (catalog == previous) statusLabel.setText("Reload failed; showing cached pitchers.");
+            start();
+        }, error -> {
+            System.err.println("Error reloading pitchers: " + error);
+            statusLabel.setText("Reload failed; showing cached pitchers.");
+        });
+    }
+
+    // 搜尋列：名稱 (打字即搜尋)、球隊、投球手、年份
+    private JComponent createFilterBar() {
+        searchField = new JTextField(16);
+        teamField = new JTextField(4);
+        handBox = new JComboBox<>(new String[] {"Any", "R", "L"});
+        yearField = new JTextField(5);
+
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> updateList());
+        searchTimer.setRepeats(false);
+        DocumentListener restart = new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+        };
+        searchField.getDocument().addDocumentListener(restart);
+        teamField.getDocument().addDocumentListener(restart);
+        yearField.getDocument().addDocumentListener(restart);
+        handBox.addActionListener(e -> searchTimer.restart());
+
+        JPanel bar = new JPanel();
+        bar.setOpaque(false);
+        bar.add(new JLabel("Name:"));
+        bar.add(searchField);
+        bar.add(new JLabel("Team:"));
+        bar.add(teamField);
+        bar.add(new JLabel("Hand:"));
+        bar.add(handBox);
+        bar.add(new JLabel("Year:"));
+        bar.add(yearField);
+        return bar;
+    }
+
+    // 目前的篩選條件；空白或無法解析的數字視為不限
+    private PitcherFilter currentFilter() {
+        String hand = (String) handBox.getSelectedItem();
+        return new PitcherFilter(parseInt(teamField.getText()), "Any".equals(hand) ? null : hand, parseInt(yearField.getText()));
+    }
+
+    private static Integer parseInt(String text) {
+        try {
+            return text.trim().isEmpty() ? null : Integer.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // 沒有搜尋文字時以資料庫分頁瀏覽，有搜尋文字時使用記憶體中的名稱索引
+    private void updateList() {
+        PitcherFilter filter = currentFilter();
+        String query = searchField.getText();
+        if (query.trim().isEmpty()) {
+            cancelPendingIndex();
+            if (pagedModel != null && pitcherList.getModel() == pagedModel && pagedModel.getFilter().equals(filter)) return;
+            showPaged(filter);
+        } else {
+            search(query, filter);
+        }
+    }
+
+    private void showPaged(PitcherFilter filter) {
+        if (pagedModel != null) pagedModel.cancel();
+        PagedPitcherListModel model = new PagedPitcherListModel(repository, filter, () -> {
+            statusLabel.setText(pagedModel.getSize() == 0 ? "No pitchers found."
+                    : pagedModel.getSize() + (pagedModel.isExhausted() ? "" : "+") + " pitchers");
+            if (pitcherList.getSelectedIndex() < 0 && pagedModel.getSize() > 0) {
+                pitcherList.setSelectedIndex(0); // 默認選中第一個
+            }
+            pagedModel.ensureLoaded(pitcherList.getLastVisibleIndex()); // 一頁不足以填滿畫面時繼續載入
+        }, error -> {
+            System.err.println("Error loading pitchers: " + error);
+            statusLabel.setText("Failed to load pitchers.");
+        });
+        pagedModel = model;
+        pitcherList.setModel(model);
+        statusLabel.setText("Loading pitchers...");
+        model.loadNextPage();
+    }
+
+    private void search(String query, PitcherFilter filter) {
+        cancelPendingIndex();
+        CompletableFuture<PitcherSearchIndex> index = repository.getSearchIndexAsync();
+        if (!index.isDone()) statusLabel.setText("Indexing pitchers...");
+        pendingIndex = index;
+        DataLoader.onEdt(index, loaded -> {
+            if (pendingIndex != index) return;
+            pendingIndex = null;
+            showSearchResults(loaded, query, filter);
+        }, error -> {
+            if (pendingIndex != index) return;
+            pendingIndex = null;
+            System.err.println("Error indexing pitchers: " + error);
+            statusLabel.setText("Search unavailable.");
+        });
+    }
+
+    private void showSearchResults(PitcherSearchIndex index, String query, PitcherFilter filter) {
+        if (pagedModel != null) {
+            pagedModel.cancel();
+            pagedModel = null;
+        }
+        long start = System.nanoTime();
+        List<Pitcher> results = index.search(query, filter, SEARCH_LIMIT);
+        double elapsed = (System.nanoTime() - start) / 1_000_000.0;
+        DefaultListModel<Pitcher> model = new DefaultListModel<>();
+        model.addAll(results);
+        pitcherList.setModel(model);
+        if (!results.isEmpty()) pitcherList.setSelectedIndex(0);
+        statusLabel.setText(results.isEmpty() ? "No pitchers found."
+                : String.format(Locale.ROOT, "%d%s matches (%.2f ms)", results.size(),
+                        results.size() >= SEARCH_LIMIT ? "+" : "", elapsed));
+    }
+
+    // 載入選取投手的球種組合 (只查詢這位投手)，再於背景分析
+    private void loadTunnels(int pid) {
+        cancelPendingTunnels();
+        pendingTunnelPid = pid;
+        tunnelStatus.setText("Loading pitch data...");
+        CompletableFuture<Arsenal> load = repository.getArsenalAsync(pid);
+        pendingLoad = load;
+        DataLoader.onEdt(load, arsenal -> {
+            if (pendingLoad != load) return;
+            pendingLoad = null;
+            analyzeTunnels(pid, arsenal);
+        }, error -> {
+            if (pendingLoad != load) return;
+            pendingLoad = null;
+            pendingTunnelPid = -1;
+            System.err.println("Error loading pitch data for pitcher " + pid + ": " + error);
+            tunnelStatus.setText("Failed to load pitch data.");
+        });
+    }
+
+    // 選擇畫面右側的隧道效應表：目前選取投手的每一對球種
+    private JComponent createTunnelView() {
+        tunnelModel = new DefaultTableModel(new Object[] {"PAIR", "DIVERGE ft", "BEST ft", "PLATE in"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(tunnelModel);
+        table.setFont(new Font("Arial", Font.PLAIN, 14));
+        table.setRowHeight(20);
+        table.getColumnModel().getColumn(0).setPreferredWidth(180);
+
+        tunnelStatus = new JLabel(" ");
+        tunnelStatus.setFont(new Font("Arial", Font.PLAIN, 12));
+        JLabel title = new JLabel("Pitch tunnels (* = diverges inside " + TunnelAnalyzer.DECISION_DISTANCE_FT + " ft)");
+        title.setFont(new Font("Arial", Font.BOLD, 14));
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(title, BorderLayout.NORTH);
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setPreferredSize(new Dimension(400, 300));
+        panel.add(tableScroll, BorderLayout.CENTER);
+        panel.add(tunnelStatus, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    private void analyzeTunnels(int pid, Arsenal arsenal) {
+        tunnelStatus.setText("Analyzing pitch tunnels...");
+        long start = System.nanoTime();
+        CompletableFuture<List<TunnelPair>> analysis = DataLoader.compute(() -> tunnelAnalyzer.analyze(arsenal), TUNNEL_TIMEOUT_MILLIS);
+        pendingTunnels = analysis;
+        DataLoader.onEdt(analysis, result -> {
+            if (pendingTunnels != analysis) return;
+            pendingTunnels = null;
+            pendingTunnelPid = -1;
+            tunnels.put(pid, result);
+            tunnelStatus.setText(String.format(Locale.ROOT, "%d pairs computed, %d cached (%.0f ms)",
+                    tunnelAnalyzer.getLastComputed(), tunnelAnalyzer.getLastReused(), (System.nanoTime() - start) / 1_000_000.0));
+            showTunnels();
+        }, error -> {
+            if (pendingTunnels != analysis) return;
+            System.err.println("Error analyzing pitch tunnels: " + error);
+            pendingTunnels = null;
+            pendingTunnelPid = -1;
+            tunnelStatus.setText("Tunnel analysis failed.");
+        });
+    }
+
+    // 顯示選取投手的組合；還沒分析過時開始載入
+    private void showTunnels() {
+        tunnelModel.setRowCount(0);
+        Pitcher pitcher = pitcherList.getSelectedValue();
+        if (pitcher == null) return;
+        List<TunnelPair> pairs = tunnels.get(pitcher.getPid());
+        if (pairs == null) {
+            if (pendingTunnelPid != pitcher.getPid()) loadTunnels(pitcher.getPid());
+            return;
+        }
+        for (TunnelPair pair : pairs) {
+            tunnelModel.addRow(new Object[] {
+                    (pair.isTunnel() ? "* " : "") + pair.getNameA() + " / " + pair.getNameB(),
+                    String.format(Locale.ROOT, "%.1f", pair.getMeanDivergence()),
+                    String.format(Locale.ROOT, "%.1f", pair.getMinDivergence()),
+                    String.format(Locale.ROOT, "%.1f", pair.getMeanPlateSeparation())
+            });
+        }
+    }
+
+    private void cancelPendingIndex() {
+        if (pendingIndex != null) {
+            pendingIndex = null; // 索引仍會建立並快取，只是不再回呼
+        }
+    }
+
+    // 使用者離開畫面時取消尚未完成的載入與分析
+    private void cancelPendingLoad() {
+        searchTimer.stop();
+        cancelPendingIndex();
+        if (pagedModel != null) pagedModel.cancel();
+        cancelPendingTunnels();
     }
 
-    private void loadPitchers() {
-        listModel.clear(); // 清空舊數據
-        List<Pitcher> pitchers = dbManager.getAllPitchers();
-        for (Pitcher p : pitchers) {
-            listModel.addElement(p);
+    private void cancelPendingTunnels() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
         }
-        if (!pitchers.isEmpty()) {
-            pitcherList.setSelectedIndex(0); // 默認選中第一個
+        if (pendingTunnels != null) {
+            pendingTunnels.cancel(true);
+            pendingTunnels = null;
         }
+        pendingTunnelPid = -1;
     }
 }
\ No newline at end of file
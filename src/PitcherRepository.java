@@ -0,0 +1,160 @@
+import data.Arsenal;
+import data.Pitcher;
+import data.PitcherCatalog;
+import data.PitcherFilter;
+import data.PitcherSearchIndex;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 投手與球種資料的記憶體快取
+// 啟動時以單一查詢載入整份 PitcherCatalog，之後的讀取都不經過資料庫；
+// 可以明確地 refresh() 重新載入，或 invalidate() 讓下一次讀取時重新載入
+public class PitcherRepository {
+    private static final PitcherRepository INSTANCE = new PitcherRepository(PitcherStore.fromSystemProperties());
+
+    private final PitcherStore store;
+    private volatile PitcherCatalog catalog; // null 表示尚未載入或已失效
+    private volatile PitcherSearchIndex searchIndex; // 投手名稱搜尋索引，與 catalog 一起失效
+    private CompletableFuture<PitcherSearchIndex> indexLoad; // 建立中的索引，同時間只查詢一次
+    private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    PitcherRepository(PitcherStore store) {
+        this.store = store;
+    }
+
+    public static PitcherRepository getInstance() {
+        return INSTANCE;
+    }
+
+    // 目前的快照；尚未載入時同步載入一次
+    public PitcherCatalog getCatalog() {
+        PitcherCatalog current = catalog;
+        if (current != null) return current;
+        synchronized (this) {
+            if (catalog == null) {
+                load();
+            }
+            return catalog != null ? catalog : PitcherCatalog.EMPTY;
+        }
+    }
+
+    // 非同步取得快照；已載入時立即完成，否則在背景執行緒查詢資料庫
+    public CompletableFuture<PitcherCatalog> getCatalogAsync() {
+        PitcherCatalog current = catalog;
+        if (current != null) return CompletableFuture.completedFuture(current);
+        return DataLoader.load(this::getCatalog);
+    }
+
+    // 啟動時在背景預先載入
+    public void preload() {
+        getCatalogAsync();
+    }
+
+    // 立即重新載入；載入失敗時保留舊的快照
+    public synchronized PitcherCatalog refresh() {
+        load();
+        return catalog != null ? catalog : PitcherCatalog.EMPTY;
+    }
+
+    // 丟棄快照，下一次讀取時重新載入
+    public void invalidate() {
+        catalog = null;
+        searchIndex = null;
+        fireInvalidated();
+    }
+
+    // 投手列表的一頁 (PID > afterPid，依 PID 排序)，直接查詢資料庫，不需要載入整份快照
+    public CompletableFuture<List<Pitcher>> getPitcherPageAsync(PitcherFilter filter, int afterPid, int limit) {
+        return DataLoader.load(() -> {
+            try {
+                return store.getPitcherPage(filter, afterPid, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    // 單一投手的球種組合；快照已載入時直接取用，否則只查詢這位投手
+    public CompletableFuture<Arsenal> getArsenalAsync(int pitcherId) {
+        PitcherCatalog current = catalog;
+        if (current != null) return CompletableFuture.completedFuture(current.getArsenal(pitcherId));
+        return DataLoader.load(() -> {
+            try {
+                return store.loadArsenal(pitcherId);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    // 名稱搜尋索引；第一次使用時在背景建立，之後的搜尋都在記憶體中完成
+    public synchronized CompletableFuture<PitcherSearchIndex> getSearchIndexAsync() {
+        PitcherSearchIndex current = searchIndex;
+        if (current != null) return CompletableFuture.completedFuture(current);
+        if (indexLoad != null) return indexLoad;
+        CompletableFuture<PitcherSearchIndex> load = DataLoader.load(() -> {
+            long start = System.nanoTime();
+            try {
+                PitcherSearchIndex loaded = store.loadPitcherIndex();
+                searchIndex = loaded;
+                System.out.printf("Indexed %d pitcher names in %.1f ms%n", loaded.size(),
+                        (System.nanoTime() - start) / 1_000_000.0);
+                return loaded;
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+        indexLoad = load;
+        load.whenComplete((index, error) -> {
+            synchronized (this) {
+                if (indexLoad == load) indexLoad = null;
+            }
+        });
+        return load;
+    }
+
+    public boolean isLoaded() {
+        return catalog != null;
+    }
+
+    public List<Pitcher> getAllPitchers() {
+        return getCatalog().getPitchers();
+    }
+
+    public Arsenal getArsenal(int pitcherId) {
+        return getCatalog().getArsenal(pitcherId);
+    }
+
+    // 快照更換或失效時通知 (例如清除依賴舊數據的軌跡快取)
+    public void addInvalidationListener(Runnable listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public void removeInvalidationListener(Runnable listener) {
+        invalidationListeners.remove(listener);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            PitcherCatalog loaded = store.loadCatalog();
+            boolean replaced = catalog != null;
+            catalog = loaded;
+            if (replaced) searchIndex = null;
+            System.out.printf("Loaded %d pitchers from %s in %.1f ms%n", loaded.getPitchers().size(),
+                    store.describe(), (System.nanoTime() - start) / 1_000_000.0);
+            if (replaced) fireInvalidated();
+        } catch (SQLException e) {
+            System.err.println("Error loading pitcher catalog: " + e.getMessage());
+        }
+    }
+
+    private void fireInvalidated() {
+        for (Runnable listener : invalidationListeners) {
+            listener.run();
+        }
+    }
+}
\ No newline at end of file
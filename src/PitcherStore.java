@@ -0,0 +1,44 @@
+import data.Arsenal;
+import data.Pitcher;
+import data.PitcherCatalog;
+import data.PitcherFilter;
+import data.PitcherSearchIndex;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+// 投手資料的來源，由系統屬性 data.store 選擇：
+//   mysql    (預設) DatabaseManager，連到 localhost 的 MySQL
+//   embedded 內嵌的 H2 資料庫 (MySQL 相容模式)，第一次使用時以 CREATETABLE.sql 建立資料表
+//   snapshot 以記憶體映射讀取的二進位快照檔 (data.snapshot，預設 baseball.snapshot)，不需要任何資料庫
+public interface PitcherStore {
+    PitcherCatalog loadCatalog() throws SQLException;
+
+    // PID > afterPid 的下一頁，依 PID 排序
+    List<Pitcher> getPitcherPage(PitcherFilter filter, int afterPid, int limit) throws SQLException;
+
+    PitcherSearchIndex loadPitcherIndex() throws SQLException;
+
+    // 單一投手的球種組合
+    Arsenal loadArsenal(int pitcherId) throws SQLException;
+
+    // 記錄用的名稱，例如 "mysql" 或快照檔的路徑
+    String describe();
+
+    static PitcherStore fromSystemProperties() {
+        String store = System.getProperty("data.store", "mysql").trim().toLowerCase(Locale.ROOT);
+        switch (store) {
+            case "mysql":
+                return new DatabaseManager();
+            case "embedded":
+                return new EmbeddedDatabase(System.getProperty("data.embeddedUrl", EmbeddedDatabase.DEFAULT_URL),
+                        Paths.get(System.getProperty("data.schema", EmbeddedDatabase.DEFAULT_SCHEMA)));
+            case "snapshot":
+                return new SnapshotPitcherStore(Paths.get(System.getProperty("data.snapshot", SnapshotPitcherStore.DEFAULT_FILE)));
+            default:
+                System.err.println("Unknown data.store value: " + store + ". Using mysql.");
+                return new DatabaseManager();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+// 畫面的生命週期，由 ScreenManager 在 EDT 上呼叫
+// start：畫面顯示時啟動計時器與遊戲迴圈；pause：畫面被切走時停止所有持續執行的工作，快取保留給下次顯示；
+// dispose：畫面不再使用，釋放圖片、背景工作與監聽器
+public interface Screen {
+    void start();
+    void pause();
+    void dispose();
+
+    // 目前是否有計時器或遊戲迴圈在執行 (洩漏檢查使用)
+    default boolean isLoopRunning() { return false; }
+}
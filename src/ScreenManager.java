@@ -0,0 +1,107 @@
+import data.Pitcher;
+import java.awt.CardLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+
+// 管理所有畫面：每種畫面只建立一次，以 CardLayout 切換，快取 (背景圖層、球種、搜尋索引等) 保持溫熱
+// 切換時先 pause 目前的畫面再 start 新的畫面，之後做一次洩漏檢查：
+// 遊戲畫面顯示時恰好一個遊戲迴圈在執行，其他畫面時沒有
+public class ScreenManager {
+    private static final String START = "start";
+    private static final String SELECTION = "selection";
+    private static final String GAME = "game";
+
+    private final JFrame frame;
+    private final CardLayout cards = new CardLayout();
+    private final JPanel root = new JPanel(cards);
+    private final Map<String, Screen> screens = new LinkedHashMap<>();
+    private String current;
+
+    // frame 為 null 時不掛到視窗上 (無視窗環境的洩漏檢查)
+    public ScreenManager(JFrame frame) {
+        this.frame = frame;
+        if (frame != null) {
+            frame.setContentPane(root);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    disposeAll();
+                }
+            });
+        }
+    }
+
+    public StartScreenPanel showStartScreen() {
+        return show(START, () -> new StartScreenPanel(frame), screen -> { });
+    }
+
+    public PitchSelectionPanel showPitchSelectionScreen() {
+        return show(SELECTION, () -> new PitchSelectionPanel(frame), screen -> { });
+    }
+
+    // 遊戲畫面只有一個，換模式或投手時重新設定，不重新建立
+    public GamePanel showGamePanel(boolean isHittingMode, Pitcher selectedPitcher) {
+        return show(GAME, () -> new GamePanel(frame), panel -> panel.configure(isHittingMode, selectedPitcher));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends JComponent & Screen> T show(String name, Supplier<T> factory, Consumer<T> configure) {
+        Screen previous = current != null ? screens.get(current) : null;
+        if (previous != null) previous.pause();
+
+        T screen = (T) screens.get(name);
+        if (screen == null) {
+            screen = factory.get();
+            screens.put(name, screen);
+            root.add(screen, name);
+        }
+        configure.accept(screen);
+        current = name;
+        cards.show(root, name);
+        if (frame != null) {
+            frame.revalidate();
+            frame.repaint();
+        }
+        screen.start();
+        screen.requestFocusInWindow(); // 確保面板獲得焦點
+        checkLoops();
+        return screen;
+    }
+
+    // 執行中的遊戲迴圈數量不符合預期時回傳 false 並輸出警告
+    public boolean checkLoops() {
+        int expected = GAME.equals(current) ? 1 : 0;
+        int running = 0;
+        for (Screen screen : screens.values()) {
+            if (screen.isLoopRunning()) running++;
+        }
+        // 主動渲染的迴圈執行緒在 stop() 時已經結束；剛啟動的執行緒可能還沒開始計數，所以只檢查上限
+        int threads = GameLoop.getActiveLoops();
+        if (running != expected || threads > expected) {
+            System.err.printf("Screen leak: %d loops running (%d loop threads) on screen '%s', expected %d%n",
+                    running, threads, current, expected);
+            return false;
+        }
+        return true;
+    }
+
+    // 關閉視窗時釋放所有畫面與共用的圖片
+    public void disposeAll() {
+        for (Screen screen : screens.values()) {
+            screen.dispose();
+        }
+        Assets.flush();
+        screens.clear();
+        root.removeAll();
+        current = null;
+    }
+
+    public int getScreenCount() { return screens.size(); }
+}
@@ -0,0 +1,31 @@
+import data.CatalogSnapshot;
+import data.PitcherCatalog;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+// 把 data.store 指定的資料庫 (預設 MySQL) 匯出成二進位快照檔，給沒有資料庫的環境以 data.store=snapshot 使用
+// 用法: java SnapshotExporter [輸出檔案，預設 baseball.snapshot]
+public class SnapshotExporter {
+    public static void main(String[] args) {
+        Path file = Paths.get(args.length > 0 ? args[0] : SnapshotPitcherStore.DEFAULT_FILE);
+        PitcherStore store = PitcherStore.fromSystemProperties();
+        long start = System.nanoTime();
+        PitcherCatalog catalog;
+        try {
+            catalog = store.loadCatalog();
+        } catch (SQLException e) {
+            System.err.println("Error loading pitchers from " + store.describe() + ": " + e.getMessage());
+            return;
+        }
+        try {
+            CatalogSnapshot.write(catalog, file);
+        } catch (IOException e) {
+            System.err.println("Error writing snapshot " + file + ": " + e.getMessage());
+            return;
+        }
+        System.out.printf("Exported %d pitchers from %s to %s in %.1f ms%n", catalog.getPitchers().size(),
+                store.describe(), file, (System.nanoTime() - start) / 1_000_000.0);
+    }
+}
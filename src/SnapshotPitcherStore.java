@@ -0,0 +1,73 @@
+import data.Arsenal;
+import data.CatalogSnapshot;
+import data.Pitcher;
+import data.PitcherCatalog;
+import data.PitcherFilter;
+import data.PitcherSearchIndex;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// 唯讀的快照檔來源：整份 PitcherCatalog 從記憶體映射的檔案解析一次，分頁與搜尋都在記憶體中完成
+// 快照檔以 SnapshotExporter 從資料庫匯出
+public class SnapshotPitcherStore implements PitcherStore {
+    public static final String DEFAULT_FILE = "baseball.snapshot";
+
+    private final Path file;
+    private PitcherCatalog catalog; // 已解析的快照；loadCatalog() 每次重新讀檔，讓 refresh 可以讀到新的檔案
+
+    public SnapshotPitcherStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized PitcherCatalog loadCatalog() throws SQLException {
+        try {
+            catalog = CatalogSnapshot.read(file);
+        } catch (IOException e) {
+            throw new SQLException("Cannot read catalog snapshot " + file + ": " + e.getMessage(), e);
+        }
+        return catalog;
+    }
+
+    @Override
+    public List<Pitcher> getPitcherPage(PitcherFilter filter, int afterPid, int limit) throws SQLException {
+        List<Pitcher> pitchers = current().getPitchers(); // 依 PID 排序
+        int low = 0, high = pitchers.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pitchers.get(mid).getPid() <= afterPid) low = mid + 1; else high = mid;
+        }
+        List<Pitcher> page = new ArrayList<>(Math.min(limit, pitchers.size() - low));
+        for (int i = low; i < pitchers.size() && page.size() < limit; i++) {
+            Pitcher p = pitchers.get(i);
+            if (filter.matches(p.getTid(), p.getLr(), p.getYear())) page.add(p);
+        }
+        return page;
+    }
+
+    @Override
+    public PitcherSearchIndex loadPitcherIndex() throws SQLException {
+        PitcherSearchIndex.Builder builder = new PitcherSearchIndex.Builder();
+        for (Pitcher p : current().getPitchers()) {
+            builder.add(p);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Arsenal loadArsenal(int pitcherId) throws SQLException {
+        return current().getArsenal(pitcherId);
+    }
+
+    @Override
+    public String describe() {
+        return "snapshot " + file;
+    }
+
+    private synchronized PitcherCatalog current() throws SQLException {
+        return catalog != null ? catalog : loadCatalog();
+    }
+}
@@ -0,0 +1,329 @@
+import data.Pitcher;
+import java.awt.Graphics2D;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import javax.swing.Action;
+
+// 無頭的加速 soak 測試：以虛擬時鐘驅動真正的 GamePanel 狀態機 (倒數、startPitch、SwingAction 判定、resetPitch)
+// 自動打者 / 投手透過面板原本的按鍵綁定送出輸入，不等待真實時間，逐幀推進的速度只受 CPU 限制
+// 結束時輸出每秒投球數、heap 成長、時間誤差與結果分佈，用來抓洩漏、時間漂移與吞吐量退化
+// 用法: java -Djava.awt.headless=true SoakTest [--mode hitting|pitching] [--hours 虛擬時數] [--pitches N]
+//       [--seed S] [--pitcher PID] [--fps 幀率] [--paint-every N]
+public class SoakTest {
+    private static final double SETTLE_SECONDS = 1.0;        // 結果出來後等待多久再開始下一球 (虛擬時間)
+    private static final double HEAP_SAMPLE_SECONDS = 600;   // 每 10 分鐘虛擬時間取樣一次 heap
+    private static final double WARMUP_SECONDS = 60;         // heap 基準在暖機之後取樣
+    private static final double COUNTDOWN_SECONDS = 3.0;     // 打擊模式倒數 180 幀 (60Hz)
+    // 自動打者的揮棒時機 (飛行比例的常態分佈) 與不揮棒的機率
+    private static final double SWING_MEAN_RATIO = 0.93, SWING_SD_RATIO = 0.05, TAKE_PROBABILITY = 0.25;
+
+    private static volatile long virtualNanos; // 面板讀取的虛擬時鐘
+
+    public static void main(String[] args) {
+        boolean hitting = true;
+        double hours = 1;
+        long maxPitches = Long.MAX_VALUE;
+        long seed = 20240601L;
+        int pitcherId = -1;
+        int fps = 60;
+        int paintEvery = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--mode": hitting = !"pitching".equalsIgnoreCase(value); break;
+                case "--hours": hours = Double.parseDouble(value); break;
+                case "--pitches": maxPitches = Long.parseLong(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--pitcher": pitcherId = Integer.parseInt(value); break;
+                case "--fps": fps = Integer.parseInt(value); break;
+                case "--paint-every": paintEvery = Integer.parseInt(value); break;
+                default:
+                    System.err.println("Usage: java -Djava.awt.headless=true SoakTest [--mode hitting|pitching] [--hours H] "
+                            + "[--pitches N] [--seed S] [--pitcher PID] [--fps F] [--paint-every N]");
+                    return;
+            }
+        }
+
+        // 主動渲染需要真正的畫布；Swing Timer 模式下不呼叫 start()，計時器不會啟動，由這裡逐幀推進
+        System.setProperty("game.render", "swing");
+        GamePanel panel = new GamePanel(null);
+        panel.setSize(1000, 700);
+        panel.useClock(() -> virtualNanos);
+        panel.setSeed(seed);
+        Pitcher pitcher = null;
+        if (pitcherId >= 0) {
+            for (Pitcher p : PitcherRepository.getInstance().getAllPitchers()) {
+                if (p.getPid() == pitcherId) pitcher = p;
+            }
+            if (pitcher == null) {
+                System.err.println("Pitcher " + pitcherId + " not found; using default pitches.");
+            }
+        }
+        panel.configure(hitting, pitcher);
+        while (panel.isArsenalLoading()) { // 投手的球種在背景載入，完成後才開始
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        Soak soak = new Soak(panel, hitting, new Random(seed ^ 0x5DEECE66DL), fps, paintEvery);
+        System.out.printf("Soak test: mode=%s, %.2f virtual hours, fps=%d, seed=%d, pitcher=%s, %d pitch types%n",
+                hitting ? "hitting" : "pitching", hours, fps, seed, pitcher != null ? pitcher.getPname() : "default",
+                panel.getArsenalSize());
+        soak.run((long) (hours * 3600e9), maxPitches);
+        soak.report();
+        System.exit(0); // 背景執行緒 (熱圖、資料庫連線池) 不一定會自行結束
+    }
+
+    private static final class Soak {
+        private final GamePanel panel;
+        private final boolean hitting;
+        private final Random random;
+        private final int fps;
+        private final long periodNanos;
+        private final int paintEvery;
+        private final Action swingAction, resetAction;
+        private final Action[] pitchActions;
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final BufferedImage frame;
+
+        // 量測
+        private final LatencyHistogram stepTime = new LatencyHistogram();
+        private final LatencyHistogram flightError = new LatencyHistogram();
+        private final Map<String, Long> outcomes = new TreeMap<>();
+        private final Map<String, Long> pitchMix = new TreeMap<>();
+        private long frames, pitches;
+        private long wallStart, wallEnd;
+        private long heapBaseline = -1, heapMax, heapFinal;
+        // 倒數長度要看到單幀的差異，直方圖的桶寬不夠細，直接記錄最小、最大與總和
+        private long countdownMin = Long.MAX_VALUE, countdownMax, countdownTotal, countdowns;
+
+        // 自動輸入的狀態
+        private long resetNanos;           // 上一次 resetPitch 的時間
+        private long pitchStartNanos = -1; // 這一球的物理時鐘起點，-1 表示沒有球在飛行
+        private double pitchFlightTime;
+        private boolean willSwing;
+        private double swingRatio;
+        private boolean recorded;          // 這一球的結果已經記錄
+        private long settleUntil = -1;     // 等待到這個時間再開始下一球
+
+        Soak(GamePanel panel, boolean hitting, Random random, int fps, int paintEvery) {
+            this.panel = panel;
+            this.hitting = hitting;
+            this.random = random;
+            this.fps = Math.max(1, fps);
+            this.periodNanos = 1_000_000_000L / this.fps;
+            this.paintEvery = paintEvery;
+            this.swingAction = panel.getActionMap().get("swingAction");
+            this.resetAction = panel.getActionMap().get("resetAction");
+            this.pitchActions = new Action[Math.min(9, panel.getArsenalSize())];
+            for (int i = 0; i < pitchActions.length; i++) {
+                pitchActions[i] = panel.getActionMap().get("pitchAction" + (i + 1));
+            }
+            this.frame = paintEvery > 0 ? new BufferedImage(1000, 700, BufferedImage.TYPE_INT_RGB) : null;
+        }
+
+        void run(long durationNanos, long maxPitches) {
+            long nextHeapSample = seconds(WARMUP_SECONDS);
+            wallStart = System.nanoTime();
+            for (long n = 1; ; n++) {
+                long now = n * 1_000_000_000L / fps; // 每幀由幀數換算，整數除法的誤差不會累積
+                if (now > durationNanos || pitches >= maxPitches) break;
+                virtualNanos = now;
+                long start = System.nanoTime();
+                panel.tick(now);
+                stepTime.record(System.nanoTime() - start);
+                frames++;
+                if (paintEvery > 0 && frames % paintEvery == 0) paint();
+
+                if (hitting) driveBatter(now); else drivePitcher(now);
+
+                if (now >= nextHeapSample) {
+                    sampleHeap(now);
+                    nextHeapSample += seconds(HEAP_SAMPLE_SECONDS);
+                }
+            }
+            wallEnd = System.nanoTime();
+            heapFinal = usedHeapAfterGc();
+            heapMax = Math.max(heapMax, heapFinal);
+        }
+
+        // 自動打者：倒數結束後面板自行投球，依常態分佈的時機在兩幀之間按下空白鍵，結果出來後再按一次開始下一球
+        private void driveBatter(long now) {
+            if (pitchStartNanos < 0 && panel.isPitchInFlight()) {
+                // 投球在這一幀的 updateGame 中開始並立即推進一幀，物理時鐘的起點是上一幀
+                beginPitch(now - periodNanos);
+                long countdown = now - resetNanos;
+                countdownMin = Math.min(countdownMin, countdown);
+                countdownMax = Math.max(countdownMax, countdown);
+                countdownTotal += countdown;
+                countdowns++;
+                willSwing = random.nextDouble() >= TAKE_PROBABILITY;
+                swingRatio = SWING_MEAN_RATIO + random.nextGaussian() * SWING_SD_RATIO;
+            }
+            if (pitchStartNanos >= 0 && willSwing && !panel.isSwingAttempted() && panel.getHitResult() == null) {
+                // 按鍵時間落在這一幀與下一幀之間時，把時鐘撥到按鍵當下再送出
+                double ratioNow = panel.swingTimeRatioAt(now);
+                double ratioPerNano = 1.0 / (pitchFlightTime * 1e9);
+                if (swingRatio < ratioNow + periodNanos * ratioPerNano) {
+                    virtualNanos = now + (long) Math.max(0, (swingRatio - ratioNow) / ratioPerNano);
+                    swingAction.actionPerformed(new ActionEvent(panel, ActionEvent.ACTION_PERFORMED, "swing"));
+                }
+            }
+            String result = panel.getHitResult();
+            if (result != null && !recorded) {
+                recorded = true;
+                count(outcomes, result);
+            }
+            if (panel.hasBallReachedCatcher()) {
+                endPitch(now);
+                if (recorded && now >= settleUntil) {
+                    virtualNanos = now;
+                    swingAction.actionPerformed(new ActionEvent(panel, ActionEvent.ACTION_PERFORMED, "reset"));
+                    nextPitch(now);
+                }
+            }
+        }
+
+        // 自動投手：移動滑鼠瞄準好球帶附近、按數字鍵投出隨機球種，球到捕手後按空白鍵重置
+        private void drivePitcher(long now) {
+            if (pitchStartNanos < 0 && !panel.isPitchInFlight() && !panel.hasBallReachedCatcher() && now >= settleUntil) {
+                if (pitchActions.length == 0) return;
+                int x = (int) (500 + random.nextGaussian() * 80), y = (int) (350 + random.nextGaussian() * 80);
+                panel.dispatchEvent(new MouseEvent(panel, MouseEvent.MOUSE_MOVED, now / 1_000_000L, 0, x, y, 0, false));
+                pitchActions[random.nextInt(pitchActions.length)]
+                        .actionPerformed(new ActionEvent(panel, ActionEvent.ACTION_PERFORMED, "pitch"));
+                if (panel.isPitchInFlight()) beginPitch(now);
+                return;
+            }
+            if (panel.hasBallReachedCatcher()) {
+                endPitch(now);
+                if (!recorded) {
+                    recorded = true;
+                    count(outcomes, panel.wasLastPitchStrike() ? "Strike" : "Ball");
+                }
+                if (now >= settleUntil) {
+                    resetAction.actionPerformed(new ActionEvent(panel, ActionEvent.ACTION_PERFORMED, "reset"));
+                    nextPitch(now);
+                }
+            }
+        }
+
+        private void beginPitch(long clockStart) {
+            pitchStartNanos = clockStart;
+            pitchFlightTime = panel.getPitchFlightTime();
+            recorded = false;
+            String name = panel.getPitchName();
+            count(pitchMix, name != null ? name : "?");
+        }
+
+        // 球到達本壘板的那一幀：與封閉解的飛行時間相差應小於一幀加一個物理步長 (固定步長累積器)
+        private void endPitch(long now) {
+            if (pitchStartNanos < 0) return;
+            long expected = (long) (pitchFlightTime * 1e9);
+            flightError.record(Math.abs(now - pitchStartNanos - expected));
+            pitchStartNanos = -1;
+            pitches++;
+            settleUntil = now + seconds(SETTLE_SECONDS);
+        }
+
+        private void nextPitch(long now) {
+            resetNanos = now;
+            settleUntil = -1;
+            recorded = false;
+        }
+
+        private void paint() {
+            Graphics2D g2d = frame.createGraphics();
+            try {
+                panel.paint(g2d);
+            } finally {
+                g2d.dispose();
+            }
+        }
+
+        private void sampleHeap(long now) {
+            long used = usedHeapAfterGc();
+            if (heapBaseline < 0) heapBaseline = used;
+            heapMax = Math.max(heapMax, used);
+            double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+            System.out.printf("  %s virtual  %,10d pitches  %8.1f pitches/s  heap %7.2f MB%n",
+                    clock(now), pitches, pitches / Math.max(wallSeconds, 1e-9), used / 1048576.0);
+        }
+
+        private long usedHeapAfterGc() {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+
+        void report() {
+            double wallSeconds = (wallEnd - wallStart) / 1e9;
+            double virtualSeconds = (double) frames / fps;
+            LatencyHistogram.Snapshot step = stepTime.snapshot();
+            LatencyHistogram.Snapshot flight = flightError.snapshot();
+            System.out.printf("Ran %s of game time in %.2f s wall (%.0fx real time)%n",
+                    clock(frames * 1_000_000_000L / fps), wallSeconds, virtualSeconds / Math.max(wallSeconds, 1e-9));
+            System.out.printf("Frames:  %,d (%,.0f frames/s), step p50 %.2f us, p99 %.2f us, max %.2f us%n",
+                    frames, frames / Math.max(wallSeconds, 1e-9), step.getPercentile(50) / 1e3,
+                    step.getPercentile(99) / 1e3, step.getMax() / 1e3);
+            GameMetrics metrics = GameMetrics.get();
+            LatencyHistogram.Snapshot physics = metrics.getPhysics().snapshot();
+            LatencyHistogram.Snapshot alloc = metrics.getAllocation().snapshot();
+            System.out.printf("Metrics: physics p50 %.2f us, p99 %.2f us, alloc/frame p99 %,d B, dropped %,d frames%n",
+                    physics.getPercentile(50) / 1e3, physics.getPercentile(99) / 1e3, alloc.getPercentile(99),
+                    metrics.getDroppedFrames());
+            System.out.printf("Pitches: %,d (%,.1f pitches/s wall, %.2f s virtual per pitch)%n",
+                    pitches, pitches / Math.max(wallSeconds, 1e-9), pitches > 0 ? virtualSeconds / pitches : 0);
+            if (heapBaseline >= 0) {
+                long growth = heapFinal - heapBaseline;
+                System.out.printf("Heap:    baseline %.2f MB, final %.2f MB, max %.2f MB, growth %+.2f MB (%+.1f B/pitch)%n",
+                        heapBaseline / 1048576.0, heapFinal / 1048576.0, heapMax / 1048576.0, growth / 1048576.0,
+                        pitches > 0 ? (double) growth / pitches : 0);
+            } else {
+                System.out.printf("Heap:    final %.2f MB (run shorter than the %.0f s warm-up, no baseline)%n",
+                        heapFinal / 1048576.0, WARMUP_SECONDS);
+            }
+            if (countdowns > 0) {
+                System.out.printf("Timing:  countdown min %.4f s, mean %.4f s, max %.4f s (nominal %.1f s + 1 frame)%n",
+                        countdownMin / 1e9, countdownTotal / 1e9 / countdowns, countdownMax / 1e9, COUNTDOWN_SECONDS);
+            }
+            if (flight.getCount() > 0) {
+                System.out.printf("Timing:  flight error p50 %.3f ms, p99 %.3f ms, max %.3f ms (frame %.3f ms)%n",
+                        flight.getPercentile(50) / 1e6, flight.getPercentile(99) / 1e6, flight.getMax() / 1e6, periodNanos / 1e6);
+            }
+            printDistribution("Outcomes", outcomes);
+            printDistribution("Pitch mix", pitchMix);
+        }
+
+        private static void printDistribution(String title, Map<String, Long> counts) {
+            long total = 0;
+            for (long count : counts.values()) total += count;
+            System.out.println(title + ":");
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                System.out.printf("  %-12s %,10d %6.2f%%%n", entry.getKey(), entry.getValue(), 100.0 * entry.getValue() / total);
+            }
+        }
+
+        private static void count(Map<String, Long> counts, String key) {
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        private static long seconds(double seconds) {
+            return (long) (seconds * 1e9);
+        }
+
+        private static String clock(long nanos) {
+            long s = nanos / 1_000_000_000L;
+            return String.format("%02d:%02d:%02d", s / 3600, s / 60 % 60, s % 60);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+// 同一張圖片預先縮放成每個整數尺寸 (正方形，MIN_SIZE..maxSize px)，以尺寸為索引直接取用
+// 繪製時是不縮放的 drawImage，避開 Java2D 每幀縮放的慢路徑
+// 原圖先以每次減半建立 mip 鏈，每個尺寸再由不小於它的最小一層縮放一次，小尺寸也不會有鋸齒
+public class SpriteCache {
+    public static final int MIN_SIZE = 2;
+
+    private final BufferedImage[] sprites; // 索引 = 尺寸 (px)
+    private final int maxSize;
+
+    public SpriteCache(BufferedImage source, int maxSize) {
+        this.maxSize = Math.max(MIN_SIZE, maxSize);
+        List<BufferedImage> mips = new ArrayList<>(); // 由大到小，每層寬高減半
+        BufferedImage level = source;
+        mips.add(level);
+        while (level.getWidth() / 2 >= MIN_SIZE && level.getHeight() / 2 >= MIN_SIZE) {
+            level = Assets.scale(level, level.getWidth() / 2, level.getHeight() / 2);
+            mips.add(level);
+        }
+        sprites = new BufferedImage[this.maxSize + 1];
+        int mip = mips.size() - 1;
+        for (int size = MIN_SIZE; size <= this.maxSize; size++) {
+            // 不小於 size 的最小一層，縮放比例不超過 2 倍
+            while (mip > 0 && mips.get(mip).getWidth() < size) mip--;
+            sprites[size] = Assets.scale(mips.get(mip), size, size);
+        }
+        for (BufferedImage m : mips) {
+            if (m != source) m.flush();
+        }
+    }
+
+    // size 超出範圍時回傳最接近的尺寸；呼叫端可以用 getMaxSize() 判斷是否需要另外縮放
+    public BufferedImage get(int size) {
+        return sprites[Math.max(MIN_SIZE, Math.min(maxSize, size))];
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    void flush() {
+        for (BufferedImage sprite : sprites) {
+            if (sprite != null) sprite.flush();
+        }
+    }
+}
@@ -1,7 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 
-public class StartScreenPanel extends JPanel {
+public class StartScreenPanel extends JPanel implements Screen {
     private JFrame mainFrame; // 用來儲存主框架的引用
 
     public StartScreenPanel(JFrame frame) {
@@ -32,4 +32,9 @@ public class StartScreenPanel extends JPanel {
         });
         add(hittingButton);
     }
+
+    // 起始畫面沒有計時器或背景工作
+    @Override public void start() { }
+    @Override public void pause() { }
+    @Override public void dispose() { }
 }
\ No newline at end of file
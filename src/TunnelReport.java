@@ -0,0 +1,79 @@
+import data.Pitcher;
+import data.PitcherCatalog;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import sim.Camera;
+import sim.TunnelAnalyzer;
+import sim.TunnelPair;
+
+// 隧道效應批次分析：整個投手名單的每一對球種，平行計算並依 PID 快取
+// 分析兩次：第二次應該全部取自快取 (數據沒有改變)，用來確認增量重算；結果可以寫成 CSV
+// 用法: java [-Ddata.store=mysql|embedded|snapshot] TunnelReport [CSV 輸出檔] [執行緒數]
+public class TunnelReport {
+    public static void main(String[] args) {
+        Path csv = args.length > 0 ? Paths.get(args[0]) : null;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        PitcherCatalog catalog = PitcherRepository.getInstance().getCatalog();
+        if (catalog.isEmpty()) {
+            System.err.println("No pitchers found. Is the database running?");
+            return;
+        }
+
+        TunnelAnalyzer analyzer = new TunnelAnalyzer(Camera.BATTER_VIEW, threads);
+        long start = System.nanoTime();
+        Map<Integer, List<TunnelPair>> tunnels = analyzer.analyze(catalog);
+        System.out.printf(Locale.ROOT, "Analyzed %,d pitchers: %,d pairs computed, %,d cached in %.0f ms (threads=%d)%n",
+                tunnels.size(), analyzer.getLastComputed(), analyzer.getLastReused(), (System.nanoTime() - start) / 1_000_000.0, threads);
+
+        start = System.nanoTime();
+        analyzer.analyze(catalog);
+        System.out.printf(Locale.ROOT, "Re-analyzed: %,d pairs computed, %,d cached in %.0f ms%n",
+                analyzer.getLastComputed(), analyzer.getLastReused(), (System.nanoTime() - start) / 1_000_000.0);
+
+        // 每位投手分歧最晚的組合
+        System.out.printf("%-16s %-22s %10s %8s %8s%n", "PITCHER", "PAIR", "DIVERGE_FT", "BEST_FT", "PLATE_IN");
+        for (Pitcher pitcher : catalog.getPitchers()) {
+            List<TunnelPair> pairs = tunnels.get(pitcher.getPid());
+            if (pairs == null || pairs.isEmpty()) continue;
+            TunnelPair best = pairs.get(0);
+            System.out.printf(Locale.ROOT, "%-16s %-22s %10.1f %8.1f %8.1f%s%n", pitcher.getPname(),
+                    best.getNameA() + "/" + best.getNameB(), best.getMeanDivergence(), best.getMinDivergence(),
+                    best.getMeanPlateSeparation(), best.isTunnel() ? " *" : "");
+        }
+
+        if (csv != null) {
+            try {
+                writeCsv(csv, catalog, tunnels);
+                System.out.println("Wrote " + csv);
+            } catch (IOException e) {
+                System.err.println("Error writing tunnel report: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void writeCsv(Path path, PitcherCatalog catalog, Map<Integer, List<TunnelPair>> tunnels) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("PID,PNAME,BID_A,PITCH_A,BID_B,PITCH_B,MEAN_DIVERGE_FT,MIN_DIVERGE_FT,BEST_X_FT,BEST_Y_FT,PLATE_SEPARATION_IN,TUNNEL");
+            out.newLine();
+            for (Pitcher pitcher : catalog.getPitchers()) {
+                List<TunnelPair> pairs = tunnels.get(pitcher.getPid());
+                if (pairs == null) continue;
+                for (TunnelPair pair : pairs) {
+                    out.write(String.format(Locale.ROOT, "%d,%s,%d,%s,%d,%s,%.3f,%.3f,%.3f,%.3f,%.3f,%b",
+                            pair.getPid(), pitcher.getPname(), pair.getBidA(), pair.getNameA(), pair.getBidB(), pair.getNameB(),
+                            pair.getMeanDivergence(), pair.getMinDivergence(), pair.getBestTargetX(), pair.getBestTargetY(),
+                            pair.getMeanPlateSeparation(), pair.isTunnel()));
+                    out.newLine();
+                }
+            }
+        }
+    }
+}
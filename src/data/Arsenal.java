@@ -0,0 +1,103 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// 投手的球種組合，以結構陣列 (每個欄位一個 double[]) 儲存
+// 槽位 (slot) 依 BID 由小到大排列且固定，1-9 數字鍵直接對應槽位 0-8；
+// 另有以 BID 為索引的查表，物理與繪製不需要以字串查 Map
+public final class Arsenal {
+    public static final Arsenal EMPTY = new Arsenal(0, new ArrayList<>(), new ArrayList<>());
+
+    private final int pid;
+    private final int[] bids;
+    private final String[] names;
+    private final double[] usep;
+    private final double[] hmov;
+    private final double[] vmov;
+    private final double[] rex;
+    private final double[] rey;
+    private final double[] speed;
+    private final TrajectoryData[] rows;
+    private final int[] slotByBid; // BID -> slot，沒有此球種時為 -1
+
+    private Arsenal(int pid, List<TrajectoryData> sortedRows, List<String> sortedNames) {
+        int n = sortedRows.size();
+        this.pid = pid;
+        this.bids = new int[n];
+        this.names = sortedNames.toArray(new String[0]);
+        this.usep = new double[n];
+        this.hmov = new double[n];
+        this.vmov = new double[n];
+        this.rex = new double[n];
+        this.rey = new double[n];
+        this.speed = new double[n];
+        this.rows = sortedRows.toArray(new TrajectoryData[0]);
+        int maxBid = 0;
+        for (int i = 0; i < n; i++) {
+            TrajectoryData data = rows[i];
+            bids[i] = data.getBid();
+            usep[i] = data.getUsep();
+            hmov[i] = data.getHmov();
+            vmov[i] = data.getVmov();
+            rex[i] = data.getRex();
+            rey[i] = data.getRey();
+            speed[i] = data.getSpeed();
+            maxBid = Math.max(maxBid, data.getBid());
+        }
+        this.slotByBid = new int[maxBid + 1];
+        Arrays.fill(slotByBid, -1);
+        for (int i = 0; i < n; i++) {
+            if (bids[i] >= 0) slotByBid[bids[i]] = i;
+        }
+    }
+
+    // 由 BNAME -> TrajectoryData 建立；槽位依 BID 排序
+    public static Arsenal of(Map<String, TrajectoryData> pitchesByName) {
+        List<Map.Entry<String, TrajectoryData>> entries = new ArrayList<>(pitchesByName.entrySet());
+        entries.sort(Comparator.comparingInt(entry -> entry.getValue().getBid()));
+        List<TrajectoryData> sortedRows = new ArrayList<>();
+        List<String> sortedNames = new ArrayList<>();
+        for (Map.Entry<String, TrajectoryData> entry : entries) {
+            sortedRows.add(entry.getValue());
+            sortedNames.add(entry.getKey());
+        }
+        int pid = sortedRows.isEmpty() ? 0 : sortedRows.get(0).getPid();
+        return new Arsenal(pid, sortedRows, sortedNames);
+    }
+
+    public int getPid() { return pid; }
+    public int size() { return bids.length; }
+    public boolean isEmpty() { return bids.length == 0; }
+
+    public int getBid(int slot) { return bids[slot]; }
+    public String getName(int slot) { return names[slot]; }
+    public double getUsep(int slot) { return usep[slot]; }
+    public double getHmov(int slot) { return hmov[slot]; }
+    public double getVmov(int slot) { return vmov[slot]; }
+    public double getRex(int slot) { return rex[slot]; }
+    public double getRey(int slot) { return rey[slot]; }
+    public double getSpeed(int slot) { return speed[slot]; }
+    public TrajectoryData getTrajectoryData(int slot) { return rows[slot]; }
+
+    // 沒有此 BID 時回傳 -1
+    public int slotOfBid(int bid) {
+        return bid >= 0 && bid < slotByBid.length ? slotByBid[bid] : -1;
+    }
+
+    // 依名稱查槽位，只在非熱路徑使用；找不到時回傳 -1
+    public int slotOfName(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // 各槽位的 USEP，供加權抽樣建表
+    public double[] getUsageWeights() {
+        return usep.clone();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+package data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// PitcherCatalog 的二進位快照檔，讓沒有資料庫的環境也能在啟動時載入真正的投手數據
+// 格式 (big-endian)：
+//   標頭   MAGIC, VERSION, 投手數, 球種數, 軌跡數 (各 4 bytes)
+//   球種   BID, BNAME
+//   投手   PID, TID, YEAR, STUFF, VELOCITY, PTYPE, LR, PNAME
+//   軌跡   PID, BID, USEP, HMOV, VMOV, REX, REY, SPEED (double)
+// 字串為 2 bytes 長度 + UTF-8；讀取時以唯讀的記憶體映射直接解析，不經過串流與緩衝區複製
+public final class CatalogSnapshot {
+    private static final int MAGIC = 0x42425343; // "BBSC"
+    private static final int VERSION = 1;
+
+    private CatalogSnapshot() { }
+
+    // 先寫到暫存檔再取代，讀取端不會看到寫到一半的檔案
+    public static void write(PitcherCatalog catalog, Path file) throws IOException {
+        List<TrajectoryData> trajectories = new ArrayList<>();
+        for (Pitcher pitcher : catalog.getPitchers()) {
+            Arsenal arsenal = catalog.getArsenal(pitcher.getPid());
+            for (int slot = 0; slot < arsenal.size(); slot++) {
+                trajectories.add(arsenal.getTrajectoryData(slot));
+            }
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(catalog.getPitchers().size());
+                out.writeInt(catalog.getBallTypes().size());
+                out.writeInt(trajectories.size());
+                for (BallType ballType : catalog.getBallTypes().values()) {
+                    out.writeInt(ballType.getBid());
+                    writeString(out, ballType.getBname());
+                }
+                for (Pitcher p : catalog.getPitchers()) {
+                    out.writeInt(p.getPid());
+                    out.writeInt(p.getTid());
+                    out.writeInt(p.getYear());
+                    out.writeInt(p.getStuff());
+                    out.writeInt(p.getVelocity());
+                    out.writeInt(p.getPtype());
+                    writeString(out, p.getLr());
+                    writeString(out, p.getPname());
+                }
+                for (TrajectoryData t : trajectories) {
+                    out.writeInt(t.getPid());
+                    out.writeInt(t.getBid());
+                    out.writeDouble(t.getUsep());
+                    out.writeDouble(t.getHmov());
+                    out.writeDouble(t.getVmov());
+                    out.writeDouble(t.getRex());
+                    out.writeDouble(t.getRey());
+                    out.writeDouble(t.getSpeed());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static PitcherCatalog read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parse(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated catalog snapshot: " + file);
+        }
+    }
+
+    private static PitcherCatalog parse(ByteBuffer in) throws IOException {
+        if (in.remaining() < 20 || in.getInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported catalog snapshot version: " + version);
+        }
+        int pitcherCount = in.getInt();
+        int ballTypeCount = in.getInt();
+        int trajectoryCount = in.getInt();
+
+        PitcherCatalog.Builder builder = new PitcherCatalog.Builder();
+        for (int i = 0; i < ballTypeCount; i++) {
+            int bid = in.getInt();
+            builder.addBallType(new BallType(bid, readString(in)));
+        }
+        for (int i = 0; i < pitcherCount; i++) {
+            int pid = in.getInt();
+            int tid = in.getInt();
+            int year = in.getInt();
+            int stuff = in.getInt();
+            int velocity = in.getInt();
+            int ptype = in.getInt();
+            String lr = readString(in);
+            String name = readString(in);
+            builder.addPitcher(new Pitcher(pid, tid, name, year, lr, stuff, velocity, ptype));
+        }
+        for (int i = 0; i < trajectoryCount; i++) {
+            int pid = in.getInt();
+            int bid = in.getInt();
+            builder.addTrajectory(new TrajectoryData(pid, bid, in.getDouble(), in.getDouble(), in.getDouble(),
+                    in.getDouble(), in.getDouble(), in.getDouble()));
+        }
+        return builder.build();
+    }
+
+    // null 以長度 -1 表示
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IOException("String too long for catalog snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 CSV 串流讀取：支援雙引號欄位 (內含逗號、換行與 "" 跳脫)，自動略過 UTF-8 BOM
+// 自行管理字元緩衝區，避免逐字呼叫 Reader.read() 的同步與虛擬呼叫成本
+public class CsvRowReader implements RowReader {
+    private final Reader in;
+    private final char[] buffer = new char[1 << 16];
+    private int position;
+    private int limit;
+    private final List<String> cells = new ArrayList<>();
+    private final StringBuilder cell = new StringBuilder();
+    private boolean first = true;
+
+    public CsvRowReader(Reader reader) {
+        this.in = reader;
+    }
+
+    @Override
+    public String[] next() throws IOException {
+        cells.clear();
+        cell.setLength(0);
+        int c = read();
+        if (first) {
+            first = false;
+            if (c == 0xFEFF) c = read();
+        }
+        if (c == -1) return null;
+
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                } else if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        c = peek;
+                        continue;
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                if (peek() == '\n') read();
+                break;
+            } else {
+                cell.append((char) c);
+            }
+            c = read();
+        }
+        cells.add(cell.toString());
+        return cells.toArray(new String[0]);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) return false;
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
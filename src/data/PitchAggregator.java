@@ -0,0 +1,90 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 把逐球資料彙總成每個 (PID, BID) 一列的 TRAJECTORY 數據
+// 每組只保留 Welford 統計量，記憶體與投球數無關，只與投手和球種的數量有關
+public class PitchAggregator {
+    private final Map<Integer, PitcherTotals> pitchers = new TreeMap<>();
+    private long pitches;
+
+    // hmov_in、vmov_in 與資料庫相同：英吋、VMOV 含重力
+    public void add(int pid, String name, String hand, int bid,
+                    double speed_mph, double rex_ft, double rey_ft, double hmov_in, double vmov_in) {
+        PitcherTotals totals = pitchers.computeIfAbsent(pid, id -> new PitcherTotals());
+        if (totals.name == null && name != null && !name.isEmpty()) totals.name = name;
+        if (totals.hand == null && hand != null && !hand.isEmpty()) totals.hand = hand;
+        totals.pitches++;
+        Group group = totals.groups.computeIfAbsent(bid, b -> new Group(pid, b));
+        group.speed.add(speed_mph);
+        group.rex.add(rex_ft);
+        group.rey.add(rey_ft);
+        group.hmov.add(hmov_in);
+        group.vmov.add(vmov_in);
+        pitches++;
+    }
+
+    public long getPitches() { return pitches; }
+    public int getPitcherCount() { return pitchers.size(); }
+
+    public List<Integer> getPitcherIds() { return new ArrayList<>(pitchers.keySet()); }
+    public String getName(int pid) { return pitchers.get(pid).name; }
+    public String getHand(int pid) { return pitchers.get(pid).hand; }
+
+    // 投球數至少 minPitches 的球種；USEP 以保留下來的球種重新計算百分比
+    public List<Group> getGroups(int pid, int minPitches) {
+        List<Group> kept = new ArrayList<>();
+        for (Group group : pitchers.get(pid).groups.values()) {
+            if (group.getCount() >= minPitches) kept.add(group);
+        }
+        return kept;
+    }
+
+    public List<TrajectoryData> getTrajectories(int minPitches) {
+        List<TrajectoryData> rows = new ArrayList<>();
+        for (int pid : pitchers.keySet()) {
+            List<Group> groups = getGroups(pid, minPitches);
+            long total = 0;
+            for (Group group : groups) total += group.getCount();
+            for (Group group : groups) {
+                rows.add(new TrajectoryData(pid, group.bid, 100.0 * group.getCount() / total,
+                        group.hmov.getMean(), group.vmov.getMean(), group.rex.getMean(), group.rey.getMean(), group.speed.getMean()));
+            }
+        }
+        return rows;
+    }
+
+    public static final class Group {
+        private final int pid;
+        private final int bid;
+        private final RunningStats speed = new RunningStats();
+        private final RunningStats rex = new RunningStats();
+        private final RunningStats rey = new RunningStats();
+        private final RunningStats hmov = new RunningStats();
+        private final RunningStats vmov = new RunningStats();
+
+        Group(int pid, int bid) {
+            this.pid = pid;
+            this.bid = bid;
+        }
+
+        public int getPid() { return pid; }
+        public int getBid() { return bid; }
+        public long getCount() { return speed.getCount(); }
+        public RunningStats getSpeed() { return speed; }
+        public RunningStats getRex() { return rex; }
+        public RunningStats getRey() { return rey; }
+        public RunningStats getHmov() { return hmov; }
+        public RunningStats getVmov() { return vmov; }
+    }
+
+    private static final class PitcherTotals {
+        String name;
+        String hand;
+        long pitches;
+        final Map<Integer, Group> groups = new TreeMap<>();
+    }
+}
@@ -0,0 +1,83 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 一次載入的 PITCHER / BALLTYPE / TRAJECTORY 快照，建立後不可變更
+// 以 PID 建立索引，切換投手時直接查表，不需要再查詢資料庫
+public class PitcherCatalog {
+    public static final PitcherCatalog EMPTY = new Builder().build();
+
+    private final List<Pitcher> pitchers;
+    private final Map<Integer, Pitcher> pitchersById;
+    private final Map<Integer, BallType> ballTypes;
+    private final Map<Integer, Arsenal> arsenals;
+    private final long loadedAtMillis;
+
+    private PitcherCatalog(Builder builder) {
+        this.pitchers = Collections.unmodifiableList(new ArrayList<>(builder.pitchers.values()));
+        this.pitchersById = Collections.unmodifiableMap(new LinkedHashMap<>(builder.pitchers));
+        this.ballTypes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.ballTypes));
+        this.arsenals = Collections.unmodifiableMap(new LinkedHashMap<>(builder.arsenals));
+        this.loadedAtMillis = System.currentTimeMillis();
+    }
+
+    // 依 PID 排序的投手列表
+    public List<Pitcher> getPitchers() { return pitchers; }
+
+    public Pitcher getPitcher(int pid) { return pitchersById.get(pid); }
+
+    public BallType getBallType(int bid) { return ballTypes.get(bid); }
+
+    public Map<Integer, BallType> getBallTypes() { return ballTypes; }
+
+    // 投手的球種組合，槽位依 BID 排序；查無資料時回傳 Arsenal.EMPTY
+    public Arsenal getArsenal(int pid) {
+        Arsenal arsenal = arsenals.get(pid);
+        return arsenal != null ? arsenal : Arsenal.EMPTY;
+    }
+
+    public boolean isEmpty() { return pitchers.isEmpty(); }
+
+    public long getLoadedAtMillis() { return loadedAtMillis; }
+
+    // 逐列累積資料後建立快照
+    public static class Builder {
+        private final Map<Integer, Pitcher> pitchers = new TreeMap<>();
+        private final Map<Integer, BallType> ballTypes = new TreeMap<>();
+        private final Map<Integer, Arsenal> arsenals = new TreeMap<>();
+        private final Map<Integer, Map<Integer, TrajectoryData>> rowsByBid = new TreeMap<>();
+
+        public Builder addPitcher(Pitcher pitcher) {
+            pitchers.putIfAbsent(pitcher.getPid(), pitcher);
+            return this;
+        }
+
+        public Builder addBallType(BallType ballType) {
+            ballTypes.putIfAbsent(ballType.getBid(), ballType);
+            return this;
+        }
+
+        public Builder addTrajectory(TrajectoryData data) {
+            rowsByBid.computeIfAbsent(data.getPid(), pid -> new TreeMap<>()).put(data.getBid(), data);
+            return this;
+        }
+
+        public PitcherCatalog build() {
+            arsenals.clear();
+            for (Map.Entry<Integer, Map<Integer, TrajectoryData>> entry : rowsByBid.entrySet()) {
+                Map<String, TrajectoryData> arsenal = new LinkedHashMap<>();
+                for (TrajectoryData data : entry.getValue().values()) {
+                    BallType ballType = ballTypes.get(data.getBid());
+                    arsenal.put(ballType != null ? ballType.getBname() : "BID" + data.getBid(), data);
+                }
+                arsenals.put(entry.getKey(), Arsenal.of(arsenal));
+            }
+            return new PitcherCatalog(this);
+        }
+    }
+}
\ No newline at end of file
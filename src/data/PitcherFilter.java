@@ -0,0 +1,44 @@
+package data;
+
+import java.util.Objects;
+
+// 投手列表的篩選條件：球隊 (TID)、投球手 (LR)、年份 (YEAR)；null 表示不限
+// 資料庫分頁查詢與記憶體中的名稱搜尋使用同一組條件
+public final class PitcherFilter {
+    public static final PitcherFilter NONE = new PitcherFilter(null, null, null);
+
+    private final Integer tid;
+    private final String lr;
+    private final Integer year;
+
+    public PitcherFilter(Integer tid, String lr, Integer year) {
+        this.tid = tid;
+        this.lr = lr;
+        this.year = year;
+    }
+
+    public boolean matches(int tid, String lr, int year) {
+        return (this.tid == null || this.tid == tid)
+                && (this.lr == null || this.lr.equalsIgnoreCase(lr))
+                && (this.year == null || this.year == year);
+    }
+
+    public boolean isEmpty() { return tid == null && lr == null && year == null; }
+
+    public Integer getTid() { return tid; }
+    public String getLr() { return lr; }
+    public Integer getYear() { return year; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PitcherFilter)) return false;
+        PitcherFilter f = (PitcherFilter) o;
+        return Objects.equals(tid, f.tid) && Objects.equals(lr, f.lr) && Objects.equals(year, f.year);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tid, lr, year);
+    }
+}
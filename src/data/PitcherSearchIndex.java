@@ -0,0 +1,245 @@
+package data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 投手姓名的記憶體搜尋索引 (打字即搜尋)
+// 欄位以結構陣列存放 (每位投手一列，依 PID 排序)，只有顯示的搜尋結果才建立 Pitcher 物件
+// 姓名正規化成大寫、非字母數字視為空白，依查詢字詞長度使用不同的結構：
+//   1 個字元：字詞開頭的前綴 (排序過的字詞陣列，二分搜尋)
+//   2 個字元：bigram 倒排索引，本身就是精確的子字串比對
+//   3 個字元以上：trigram 倒排索引取交集，再以 contains 驗證
+// 多個字詞時每個字詞都必須符合
+public final class PitcherSearchIndex {
+    public static final PitcherSearchIndex EMPTY = new Builder().build();
+
+    private final int size;
+    private final int[] pids, tids, years, stuffs, velocities, ptypes;
+    private final String[] names, hands;
+    private final String[] normalized;
+    private final Map<Long, int[]> postings; // n-gram -> 遞增的列索引
+    private final String[] words;            // 所有字詞，排序後
+    private final int[] wordRows;            // 與 words 對應的列索引
+
+    private PitcherSearchIndex(Builder b) {
+        size = b.size;
+        pids = Arrays.copyOf(b.pids, size);
+        tids = Arrays.copyOf(b.tids, size);
+        years = Arrays.copyOf(b.years, size);
+        stuffs = Arrays.copyOf(b.stuffs, size);
+        velocities = Arrays.copyOf(b.velocities, size);
+        ptypes = Arrays.copyOf(b.ptypes, size);
+        names = Arrays.copyOf(b.names, size);
+        hands = Arrays.copyOf(b.hands, size);
+        normalized = new String[size];
+
+        Map<Long, IntList> lists = new HashMap<>();
+        List<Object[]> wordList = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            String text = normalize(names[row]);
+            normalized[row] = text;
+            for (String word : text.split(" ")) {
+                if (word.isEmpty()) continue;
+                wordList.add(new Object[] {word, row});
+                for (int n = 2; n <= 3; n++) {
+                    for (int i = 0; i + n <= word.length(); i++) {
+                        lists.computeIfAbsent(gram(word, i, n), k -> new IntList()).addDistinct(row);
+                    }
+                }
+            }
+        }
+        postings = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<Long, IntList> entry : lists.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+        wordList.sort(Comparator.comparing((Object[] w) -> (String) w[0]).thenComparing(w -> (Integer) w[1]));
+        words = new String[wordList.size()];
+        wordRows = new int[wordList.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = (String) wordList.get(i)[0];
+            wordRows[i] = (Integer) wordList.get(i)[1];
+        }
+    }
+
+    // 符合查詢與篩選條件的投手 (依 PID 排序)，最多 limit 筆
+    public List<Pitcher> search(String query, PitcherFilter filter, int limit) {
+        List<Pitcher> result = new ArrayList<>();
+        for (int row : searchRows(query)) {
+            if (!filter.matches(tids[row], hands[row], years[row])) continue;
+            result.add(getPitcher(row));
+            if (result.size() >= limit) break;
+        }
+        return result;
+    }
+
+    // 符合查詢的列索引 (遞增)；空白查詢回傳所有列
+    int[] searchRows(String query) {
+        String[] terms = normalize(query).split(" ");
+        int[] rows = null;
+        for (String term : terms) {
+            if (term.isEmpty()) continue;
+            int[] matches = termRows(term);
+            rows = rows == null ? matches : intersect(rows, matches);
+            if (rows.length == 0) break;
+        }
+        if (rows == null) {
+            rows = new int[size];
+            for (int i = 0; i < size; i++) rows[i] = i;
+        }
+        return rows;
+    }
+
+    private int[] termRows(String term) {
+        if (term.length() == 1) return prefixRows(term);
+        if (term.length() == 2) {
+            int[] list = postings.get(gram(term, 0, 2));
+            return list != null ? list : new int[0];
+        }
+        // 由最短的 trigram 倒排列表開始取交集
+        int[][] lists = new int[term.length() - 2][];
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            int[] list = postings.get(gram(term, i, 3));
+            if (list == null) return new int[0];
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] rows = lists[0];
+        for (int i = 1; i < lists.length && rows.length > 0; i++) {
+            rows = intersect(rows, lists[i]);
+        }
+        if (lists.length == 1) return rows;
+        // trigram 都出現不代表連續出現，逐筆確認
+        IntList verified = new IntList();
+        for (int row : rows) {
+            if (normalized[row].contains(term)) verified.add(row);
+        }
+        return verified.toArray();
+    }
+
+    // 以 prefix 開頭的字詞所在的列
+    private int[] prefixRows(String prefix) {
+        int low = 0, high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(prefix) < 0) low = mid + 1; else high = mid;
+        }
+        boolean[] seen = new boolean[size];
+        int count = 0;
+        for (int i = low; i < words.length && words[i].startsWith(prefix); i++) {
+            if (!seen[wordRows[i]]) {
+                seen[wordRows[i]] = true;
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        for (int row = 0, j = 0; j < count; row++) {
+            if (seen[row]) rows[j++] = row;
+        }
+        return rows;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // 每個字元 16 位元，最多 3 個字元，再以最高位元區分長度
+    private static long gram(String text, int start, int length) {
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            key = (key << 16) | text.charAt(start + i);
+        }
+        return key;
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder out = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                out.append(Character.toUpperCase(ch));
+                space = false;
+            } else if (!space) {
+                out.append(' ');
+                space = true;
+            }
+        }
+        int end = out.length();
+        if (end > 0 && out.charAt(end - 1) == ' ') out.setLength(end - 1);
+        return out.toString();
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public Pitcher getPitcher(int row) {
+        return new Pitcher(pids[row], tids[row], names[row], years[row], hands[row], stuffs[row], velocities[row], ptypes[row]);
+    }
+
+    // 依 PID 遞增的順序加入 (與資料庫查詢的 ORDER BY PID 相同)
+    public static class Builder {
+        private int size;
+        private int[] pids = new int[16], tids = new int[16], years = new int[16];
+        private int[] stuffs = new int[16], velocities = new int[16], ptypes = new int[16];
+        private String[] names = new String[16], hands = new String[16];
+
+        public Builder add(Pitcher pitcher) {
+            if (size == pids.length) {
+                int capacity = size * 2;
+                pids = Arrays.copyOf(pids, capacity);
+                tids = Arrays.copyOf(tids, capacity);
+                years = Arrays.copyOf(years, capacity);
+                stuffs = Arrays.copyOf(stuffs, capacity);
+                velocities = Arrays.copyOf(velocities, capacity);
+                ptypes = Arrays.copyOf(ptypes, capacity);
+                names = Arrays.copyOf(names, capacity);
+                hands = Arrays.copyOf(hands, capacity);
+            }
+            pids[size] = pitcher.getPid();
+            tids[size] = pitcher.getTid();
+            years[size] = pitcher.getYear();
+            stuffs[size] = pitcher.getStuff();
+            velocities[size] = pitcher.getVelocity();
+            ptypes[size] = pitcher.getPtype();
+            names[size] = pitcher.getPname() != null ? pitcher.getPname() : "";
+            hands[size] = pitcher.getLr();
+            size++;
+            return this;
+        }
+
+        public PitcherSearchIndex build() {
+            return new PitcherSearchIndex(this);
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        // 同一列的 n-gram 可能重複出現，列索引遞增加入，只需要檢查最後一個
+        void addDistinct(int value) {
+            if (size == 0 || values[size - 1] != value) add(value);
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
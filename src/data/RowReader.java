@@ -0,0 +1,10 @@
+package data;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// 逐列讀取表格檔 (CSV、XLSX)，一次只保留一列在記憶體中
+public interface RowReader extends Closeable {
+    // 下一列的儲存格 (空白儲存格為空字串)；檔案結束時回傳 null
+    String[] next() throws IOException;
+}
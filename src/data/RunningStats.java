@@ -0,0 +1,20 @@
+package data;
+
+// Welford 線上平均與變異數：一次一個樣本，記憶體固定，數值比累加平方和穩定
+public class RunningStats {
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    public long getCount() { return count; }
+    public double getMean() { return mean; }
+    public double getVariance() { return count < 2 ? 0 : m2 / (count - 1); }
+    public double getStdDev() { return Math.sqrt(getVariance()); }
+}
@@ -0,0 +1,169 @@
+package data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+// XLSX 第一個工作表的串流讀取：以 StAX 逐列解析 sheet XML，不把整份活頁簿載入記憶體
+// 只有共用字串表 (sharedStrings.xml) 需要事先載入；逐球資料的字串 (姓名、球種代碼) 種類很少
+// 跳過的欄位以空字串補齊，讓每一列的欄位位置與欄名對應
+public class XlsxRowReader implements RowReader {
+    private static final XMLInputFactory XML = createFactory();
+
+    private final ZipFile zip;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private final List<String> sharedStrings;
+
+    // 活頁簿來自外部檔案：關閉 DTD 與外部實體，避免 XXE 與實體展開攻擊
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    public XlsxRowReader(String path) throws IOException {
+        this.zip = new ZipFile(path);
+        try {
+            this.sharedStrings = readSharedStrings(zip);
+            ZipEntry entry = findFirstSheet(zip);
+            this.sheetStream = zip.getInputStream(entry);
+            this.sheet = XML.createXMLStreamReader(sheetStream);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Invalid XLSX file: " + path, e);
+        }
+    }
+
+    @Override
+    public String[] next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Error reading worksheet: " + e.getMessage(), e);
+        }
+    }
+
+    private String[] readRow() throws XMLStreamException {
+        List<String> cells = new ArrayList<>();
+        String type = null;
+        int column = -1;
+        StringBuilder value = new StringBuilder();
+        boolean inValue = false;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("c".equals(name)) {
+                    String ref = sheet.getAttributeValue(null, "r");
+                    column = ref != null ? columnIndex(ref) : cells.size();
+                    type = sheet.getAttributeValue(null, "t");
+                    value.setLength(0);
+                } else if ("v".equals(name) || "t".equals(name)) {
+                    inValue = true;
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS && inValue) {
+                value.append(sheet.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("v".equals(name) || "t".equals(name)) {
+                    inValue = false;
+                } else if ("c".equals(name)) {
+                    while (cells.size() < column) cells.add("");
+                    cells.add(cellText(type, value.toString()));
+                } else if ("row".equals(name)) {
+                    break;
+                }
+            }
+        }
+        return cells.toArray(new String[0]);
+    }
+
+    private String cellText(String type, String raw) {
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(raw.trim());
+            return index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        return raw;
+    }
+
+    // "AB12" -> 27 (從 0 開始)
+    static int columnIndex(String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char ch = ref.charAt(i);
+            if (ch < 'A' || ch > 'Z') break;
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static ZipEntry findFirstSheet(ZipFile zip) throws IOException {
+        ZipEntry entry = zip.getEntry("xl/worksheets/sheet1.xml");
+        if (entry != null) return entry;
+        String[] sheets = zip.stream().map(ZipEntry::getName)
+                .filter(name -> name.startsWith("xl/worksheets/") && name.endsWith(".xml"))
+                .sorted().toArray(String[]::new);
+        if (sheets.length == 0) {
+            throw new IOException("No worksheet found in " + zip.getName());
+        }
+        return zip.getEntry(sheets[0]);
+    }
+
+    // 每個 <si> 可能由多段 <t> (rich text) 組成，合併成一個字串；<rPh> 注音標示不算在內
+    private static List<String> readSharedStrings(ZipFile zip) throws IOException, XMLStreamException {
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) return Arrays.asList();
+        List<String> strings = new ArrayList<>();
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = XML.createXMLStreamReader(in);
+            StringBuilder text = new StringBuilder();
+            boolean inText = false;
+            int phonetic = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("si".equals(name)) text.setLength(0);
+                    else if ("rPh".equals(name)) phonetic++;
+                    else if ("t".equals(name)) inText = phonetic == 0;
+                } else if (event == XMLStreamConstants.CHARACTERS && inText) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("t".equals(name)) inText = false;
+                    else if ("rPh".equals(name)) phonetic--;
+                    else if ("si".equals(name)) strings.add(text.toString());
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            sheetStream.close();
+            zip.close();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package sim;
+
+import java.util.Arrays;
+
+// 一批投球的 RK4 積分器，狀態以結構陣列存放 (每個分量一個 double[])
+// 加速度只與速度有關：a = -K_D |v| v + (mx, my, 0) |v|^2 - g
+// 每一步拆成數個對所有球做相同運算、沒有分支的簡單迴圈，讓 JIT 可以自動向量化 (加速度的迴圈含 sqrt)；
+// 到達本壘板的判斷放在另一個迴圈
+final class AeroIntegrator {
+    private static final int MAX_STEPS = 10_000;
+
+    final int capacity;
+    final double[] x, y, z, vx, vy, vz;
+    final double[] magnusX, magnusY; // Magnus 加速度 / |v|^2 (1/ft)
+    final double[] plateX, plateY, plateTime, plateSpeed;
+    final double[] startVx, startVy; // 初速的暫存，供修正初速後重新載入
+
+    private final double[] prevX, prevY, prevZ, prevVx, prevVy, prevVz;
+    // RK4 各階段的暫存
+    private final double[] ux, uy, uz, ax, ay, az;
+    private final double[] sumX, sumY, sumZ, sumAx, sumAy, sumAz;
+    private final boolean[] done;
+
+    AeroIntegrator(int capacity) {
+        this.capacity = capacity;
+        x = new double[capacity]; y = new double[capacity]; z = new double[capacity];
+        vx = new double[capacity]; vy = new double[capacity]; vz = new double[capacity];
+        magnusX = new double[capacity]; magnusY = new double[capacity];
+        plateX = new double[capacity]; plateY = new double[capacity];
+        plateTime = new double[capacity]; plateSpeed = new double[capacity];
+        startVx = new double[capacity]; startVy = new double[capacity];
+        prevX = new double[capacity]; prevY = new double[capacity]; prevZ = new double[capacity];
+        prevVx = new double[capacity]; prevVy = new double[capacity]; prevVz = new double[capacity];
+        ux = new double[capacity]; uy = new double[capacity]; uz = new double[capacity];
+        ax = new double[capacity]; ay = new double[capacity]; az = new double[capacity];
+        sumX = new double[capacity]; sumY = new double[capacity]; sumZ = new double[capacity];
+        sumAx = new double[capacity]; sumAy = new double[capacity]; sumAz = new double[capacity];
+        done = new boolean[capacity];
+    }
+
+    void load(int lane, double x0, double y0, double z0, double vx0, double vy0, double vz0, double mx, double my) {
+        x[lane] = x0; y[lane] = y0; z[lane] = z0;
+        vx[lane] = vx0; vy[lane] = vy0; vz[lane] = vz0;
+        magnusX[lane] = mx; magnusY[lane] = my;
+    }
+
+    // 積分前 n 個球直到全部越過 plateZ，交會點以三次 Hermite 內插求出
+    void integrateToPlate(int n, double h, double plateZ) {
+        Arrays.fill(done, 0, n, false);
+        int remaining = n;
+        for (int steps = 1; remaining > 0; steps++) {
+            if (steps > MAX_STEPS) {
+                throw new IllegalStateException("Pitch did not reach the plate within " + MAX_STEPS + " steps");
+            }
+            step(n, h);
+            remaining -= collectCrossings(n, h, plateZ, (steps - 1) * h);
+        }
+    }
+
+    // 所有球前進一個 RK4 步長；每個階段是一個對所有球做相同運算的簡單迴圈
+    void step(int n, double h) {
+        final double half = 0.5 * h, sixth = h / 6.0;
+        System.arraycopy(x, 0, prevX, 0, n);
+        System.arraycopy(y, 0, prevY, 0, n);
+        System.arraycopy(z, 0, prevZ, 0, n);
+        System.arraycopy(vx, 0, prevVx, 0, n);
+        System.arraycopy(vy, 0, prevVy, 0, n);
+        System.arraycopy(vz, 0, prevVz, 0, n);
+
+        // k1：在目前速度
+        accelerate(n, vx, vy, vz, ax, ay, az);
+        for (int i = 0; i < n; i++) {
+            sumX[i] = vx[i]; sumY[i] = vy[i]; sumZ[i] = vz[i];
+            sumAx[i] = ax[i]; sumAy[i] = ay[i]; sumAz[i] = az[i];
+            ux[i] = vx[i] + half * ax[i]; uy[i] = vy[i] + half * ay[i]; uz[i] = vz[i] + half * az[i];
+        }
+        // k2
+        accelerate(n, ux, uy, uz, ax, ay, az);
+        for (int i = 0; i < n; i++) {
+            sumX[i] += 2 * ux[i]; sumY[i] += 2 * uy[i]; sumZ[i] += 2 * uz[i];
+            sumAx[i] += 2 * ax[i]; sumAy[i] += 2 * ay[i]; sumAz[i] += 2 * az[i];
+            ux[i] = vx[i] + half * ax[i]; uy[i] = vy[i] + half * ay[i]; uz[i] = vz[i] + half * az[i];
+        }
+        // k3
+        accelerate(n, ux, uy, uz, ax, ay, az);
+        for (int i = 0; i < n; i++) {
+            sumX[i] += 2 * ux[i]; sumY[i] += 2 * uy[i]; sumZ[i] += 2 * uz[i];
+            sumAx[i] += 2 * ax[i]; sumAy[i] += 2 * ay[i]; sumAz[i] += 2 * az[i];
+            ux[i] = vx[i] + h * ax[i]; uy[i] = vy[i] + h * ay[i]; uz[i] = vz[i] + h * az[i];
+        }
+        // k4 與合併
+        accelerate(n, ux, uy, uz, ax, ay, az);
+        for (int i = 0; i < n; i++) {
+            x[i] += sixth * (sumX[i] + ux[i]);
+            y[i] += sixth * (sumY[i] + uy[i]);
+            z[i] += sixth * (sumZ[i] + uz[i]);
+            vx[i] += sixth * (sumAx[i] + ax[i]);
+            vy[i] += sixth * (sumAy[i] + ay[i]);
+            vz[i] += sixth * (sumAz[i] + az[i]);
+        }
+    }
+
+    // a = -K_D |u| u + (mx, my, 0) |u|^2 - g
+    private void accelerate(int n, double[] ux, double[] uy, double[] uz, double[] ax, double[] ay, double[] az) {
+        final double kd = AeroModel.DRAG_K;
+        final double g = AeroModel.GRAVITY_FTS2;
+        for (int i = 0; i < n; i++) {
+            double speedSq = ux[i] * ux[i] + uy[i] * uy[i] + uz[i] * uz[i];
+            double drag = kd * Math.sqrt(speedSq);
+            ax[i] = magnusX[i] * speedSq - drag * ux[i];
+            ay[i] = magnusY[i] * speedSq - drag * uy[i] - g;
+            az[i] = -drag * uz[i];
+        }
+    }
+
+    // 記錄這一步越過本壘板的球，回傳數量
+    private int collectCrossings(int n, double h, double plateZ, double stepStartTime) {
+        int crossed = 0;
+        for (int i = 0; i < n; i++) {
+            if (done[i] || z[i] > plateZ) continue;
+            // z 在一步內幾乎是線性的，先以線性比例估計交會時間，再以 Hermite 內插 x、y
+            double s = (prevZ[i] - plateZ) / (prevZ[i] - z[i]);
+            plateX[i] = hermite(prevX[i], prevVx[i], x[i], vx[i], s, h);
+            plateY[i] = hermite(prevY[i], prevVy[i], y[i], vy[i], s, h);
+            plateTime[i] = stepStartTime + s * h;
+            double ux = prevVx[i] + (vx[i] - prevVx[i]) * s;
+            double uy = prevVy[i] + (vy[i] - prevVy[i]) * s;
+            double uz = prevVz[i] + (vz[i] - prevVz[i]) * s;
+            plateSpeed[i] = Math.sqrt(ux * ux + uy * uy + uz * uz);
+            done[i] = true;
+            crossed++;
+        }
+        return crossed;
+    }
+
+    static double hermite(double p0, double v0, double p1, double v1, double s, double h) {
+        double s2 = s * s, s3 = s2 * s;
+        return (2 * s3 - 3 * s2 + 1) * p0 + (s3 - 2 * s2 + s) * h * v0
+                + (-2 * s3 + 3 * s2) * p1 + (s3 - s2) * h * v1;
+    }
+}
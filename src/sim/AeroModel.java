@@ -0,0 +1,186 @@
+package sim;
+
+import data.Arsenal;
+
+// 空氣力學飛行模型：速度相關的阻力、Magnus 力與重力
+// 每個球種的 Magnus 係數會校正到重現資料庫的 HMOV/VMOV (相對於初速直線外插的位移)，
+// 並預先求出落點對初速的 Jacobian，每一球只需要積分兩次 (一次預測、一次修正) 就能投到目標
+public final class AeroModel {
+    public static final double GRAVITY_FTS2 = 32.174;
+    public static final double DRAG_COEFFICIENT = 0.35;
+    private static final double AIR_DENSITY_LB_FT3 = 0.0740;
+    private static final double BALL_MASS_LB = 0.3203;       // 5.125 oz
+    private static final double BALL_RADIUS_FT = 0.1208;     // 直徑 2.9 吋
+    // 阻力加速度 = DRAG_K |v| v，DRAG_K = ρ Cd A / 2m
+    static final double DRAG_K = 0.5 * AIR_DENSITY_LB_FT3 * DRAG_COEFFICIENT
+            * Math.PI * BALL_RADIUS_FT * BALL_RADIUS_FT / BALL_MASS_LB;
+
+    // 加速度隨時間變化平緩，RK4 以 1/25 秒的步長 (整段飛行約 11 步) 落點誤差已在 0.001 吋以下，
+    // 飛行時間與末速和 1/200 秒的結果相同到小數第四位
+    public static final double DEFAULT_STEP_SECONDS = 1.0 / 25.0;
+    public static final int BATCH_SIZE = 256;
+    private static final double CALIBRATION_STEP_SECONDS = 1.0 / 500.0;
+    private static final double CALIBRATION_TOLERANCE_FT = 1e-5;
+    private static final int CALIBRATION_ITERATIONS = 50;
+    private static final double REFERENCE_X_FT = 0.0, REFERENCE_Y_FT = 2.5; // 以好球帶中心校正
+    private static final double JACOBIAN_DELTA_FTS = 1.0;
+
+    private static final ThreadLocal<AeroIntegrator> BATCH = ThreadLocal.withInitial(() -> new AeroIntegrator(BATCH_SIZE));
+
+    private final double stepSeconds;
+    private final int refinements;
+    // 以下皆以槽位為索引
+    private final double[] rex, rey, releaseSpeed;
+    private final double[] magnusX, magnusY;
+    private final double[] refVx, refVy, refPlateX, refPlateY;
+    private final double[] inv00, inv01, inv10, inv11; // 落點對初速 Jacobian 的反矩陣
+
+    private AeroModel(int size, double stepSeconds, int refinements) {
+        this.stepSeconds = stepSeconds;
+        this.refinements = refinements;
+        rex = new double[size]; rey = new double[size]; releaseSpeed = new double[size];
+        magnusX = new double[size]; magnusY = new double[size];
+        refVx = new double[size]; refVy = new double[size];
+        refPlateX = new double[size]; refPlateY = new double[size];
+        inv00 = new double[size]; inv01 = new double[size]; inv10 = new double[size]; inv11 = new double[size];
+    }
+
+    public static AeroModel calibrate(Arsenal arsenal) {
+        return calibrate(arsenal, DEFAULT_STEP_SECONDS, 1);
+    }
+
+    // stepSeconds 為投球時的 RK4 步長；refinements 為每球以 Jacobian 修正初速的次數
+    public static AeroModel calibrate(Arsenal arsenal, double stepSeconds, int refinements) {
+        AeroModel model = new AeroModel(arsenal.size(), stepSeconds, refinements);
+        AeroIntegrator integrator = new AeroIntegrator(3);
+        for (int slot = 0; slot < arsenal.size(); slot++) {
+            model.calibrateSlot(integrator, slot, arsenal.getRex(slot), arsenal.getRey(slot), arsenal.getSpeed(slot),
+                    arsenal.getHmov(slot) / 12.0, arsenal.getVmov(slot) / 12.0);
+        }
+        return model;
+    }
+
+    private void calibrateSlot(AeroIntegrator integrator, int slot, double startX, double startY, double speed_mph,
+                               double moveX_ft, double moveY_ft) {
+        double speed = speed_mph * PitchSimulator.MPH_TO_FTS;
+        double startZ = PitchSimulator.PITCHER_MOUND_DISTANCE_FT, plateZ = PitchSimulator.HOME_PLATE_FRONT_FT;
+        rex[slot] = startX;
+        rey[slot] = startY;
+        releaseSpeed[slot] = speed;
+
+        // 由封閉解的等加速度開始：位移 = a T^2 / 2，Magnus 需額外抵銷重力
+        double t = (startZ - plateZ) / speed;
+        double mx = 2 * moveX_ft / (t * t) / (speed * speed);
+        double my = (2 * moveY_ft / (t * t) + GRAVITY_FTS2) / (speed * speed);
+        double vx = (REFERENCE_X_FT - startX) / t - moveX_ft / t;
+        double vy = (REFERENCE_Y_FT - startY) / t - moveY_ft / t;
+
+        // 交替修正 Magnus 係數 (使位移符合) 與初速 (使落點在參考點)，兩者都近似線性，很快收斂
+        for (int i = 0; i < CALIBRATION_ITERATIONS; i++) {
+            integrator.load(0, startX, startY, startZ, vx, vy, -speed, mx, my);
+            integrator.integrateToPlate(1, CALIBRATION_STEP_SECONDS, plateZ);
+            t = integrator.plateTime[0];
+            double errMoveX = moveX_ft - (integrator.plateX[0] - startX - vx * t);
+            double errMoveY = moveY_ft - (integrator.plateY[0] - startY - vy * t);
+            double errX = REFERENCE_X_FT - integrator.plateX[0];
+            double errY = REFERENCE_Y_FT - integrator.plateY[0];
+            double meanSpeedSq = 0.25 * (speed + integrator.plateSpeed[0]) * (speed + integrator.plateSpeed[0]);
+            mx += 2 * errMoveX / (t * t) / meanSpeedSq;
+            my += 2 * errMoveY / (t * t) / meanSpeedSq;
+            vx += errX / t;
+            vy += errY / t;
+            if (Math.abs(errMoveX) + Math.abs(errMoveY) + Math.abs(errX) + Math.abs(errY) < CALIBRATION_TOLERANCE_FT) break;
+        }
+        magnusX[slot] = mx;
+        magnusY[slot] = my;
+        refVx[slot] = vx;
+        refVy[slot] = vy;
+
+        // 以有限差分求落點對 (vx, vy) 的 Jacobian
+        integrator.load(0, startX, startY, startZ, vx, vy, -speed, mx, my);
+        integrator.load(1, startX, startY, startZ, vx + JACOBIAN_DELTA_FTS, vy, -speed, mx, my);
+        integrator.load(2, startX, startY, startZ, vx, vy + JACOBIAN_DELTA_FTS, -speed, mx, my);
+        integrator.integrateToPlate(3, stepSeconds, plateZ);
+        refPlateX[slot] = integrator.plateX[0];
+        refPlateY[slot] = integrator.plateY[0];
+        double j00 = (integrator.plateX[1] - integrator.plateX[0]) / JACOBIAN_DELTA_FTS;
+        double j10 = (integrator.plateY[1] - integrator.plateY[0]) / JACOBIAN_DELTA_FTS;
+        double j01 = (integrator.plateX[2] - integrator.plateX[0]) / JACOBIAN_DELTA_FTS;
+        double j11 = (integrator.plateY[2] - integrator.plateY[0]) / JACOBIAN_DELTA_FTS;
+        double det = j00 * j11 - j01 * j10;
+        inv00[slot] = j11 / det;
+        inv01[slot] = -j01 / det;
+        inv10[slot] = -j10 / det;
+        inv11[slot] = j00 / det;
+    }
+
+    // 一批投球：寫入本壘板位置、飛行時間與到達本壘板時的速度 (ft/s)
+    // 出手點使用各槽位的 REX/REY；n 可以大於 BATCH_SIZE，內部會分段處理
+    public void solveBatch(int n, int[] slots, double[] targetX, double[] targetY,
+                           double[] plateX, double[] plateY, double[] flightTime, double[] plateSpeed) {
+        AeroIntegrator integrator = BATCH.get();
+        double plateZ = PitchSimulator.HOME_PLATE_FRONT_FT;
+        for (int offset = 0; offset < n; offset += BATCH_SIZE) {
+            int count = Math.min(BATCH_SIZE, n - offset);
+            // 由參考軌跡與 Jacobian 預測初速
+            for (int i = 0; i < count; i++) {
+                int slot = slots[offset + i];
+                double dx = targetX[offset + i] - refPlateX[slot], dy = targetY[offset + i] - refPlateY[slot];
+                integrator.startVx[i] = refVx[slot] + inv00[slot] * dx + inv01[slot] * dy;
+                integrator.startVy[i] = refVy[slot] + inv10[slot] * dx + inv11[slot] * dy;
+                loadLane(integrator, i, slot, rex[slot], rey[slot]);
+            }
+            integrator.integrateToPlate(count, stepSeconds, plateZ);
+            // 以實際落點誤差修正初速後重新積分
+            for (int r = 0; r < refinements; r++) {
+                for (int i = 0; i < count; i++) {
+                    int slot = slots[offset + i];
+                    correct(integrator, i, slot, targetX[offset + i], targetY[offset + i]);
+                    loadLane(integrator, i, slot, rex[slot], rey[slot]);
+                }
+                integrator.integrateToPlate(count, stepSeconds, plateZ);
+            }
+            System.arraycopy(integrator.plateX, 0, plateX, offset, count);
+            System.arraycopy(integrator.plateY, 0, plateY, offset, count);
+            System.arraycopy(integrator.plateTime, 0, flightTime, offset, count);
+            System.arraycopy(integrator.plateSpeed, 0, plateSpeed, offset, count);
+        }
+    }
+
+    // 遊戲用的單球軌跡：出手點可以偏離槽位的 REX/REY (控球誤差)，結果預先取樣成表格
+    public AeroTrajectory solve(int slot, double startX_ft, double startY_ft, double targetX_ft, double targetY_ft) {
+        AeroIntegrator integrator = new AeroIntegrator(1);
+        double plateZ = PitchSimulator.HOME_PLATE_FRONT_FT;
+        // 出手點平移時落點大致跟著平移
+        double dx = targetX_ft - refPlateX[slot] - (startX_ft - rex[slot]);
+        double dy = targetY_ft - refPlateY[slot] - (startY_ft - rey[slot]);
+        integrator.startVx[0] = refVx[slot] + inv00[slot] * dx + inv01[slot] * dy;
+        integrator.startVy[0] = refVy[slot] + inv10[slot] * dx + inv11[slot] * dy;
+        loadLane(integrator, 0, slot, startX_ft, startY_ft);
+        integrator.integrateToPlate(1, stepSeconds, plateZ);
+        for (int r = 0; r < refinements; r++) {
+            correct(integrator, 0, slot, targetX_ft, targetY_ft);
+            loadLane(integrator, 0, slot, startX_ft, startY_ft);
+            integrator.integrateToPlate(1, stepSeconds, plateZ);
+        }
+        double plateX = integrator.plateX[0], plateY = integrator.plateY[0], flightTime = integrator.plateTime[0];
+        loadLane(integrator, 0, slot, startX_ft, startY_ft);
+        return AeroTrajectory.tabulate(integrator, stepSeconds, plateZ, plateX, plateY, flightTime);
+    }
+
+    private void loadLane(AeroIntegrator integrator, int lane, int slot, double startX_ft, double startY_ft) {
+        integrator.load(lane, startX_ft, startY_ft, PitchSimulator.PITCHER_MOUND_DISTANCE_FT,
+                integrator.startVx[lane], integrator.startVy[lane], -releaseSpeed[slot], magnusX[slot], magnusY[slot]);
+    }
+
+    private void correct(AeroIntegrator integrator, int lane, int slot, double targetX_ft, double targetY_ft) {
+        double ex = targetX_ft - integrator.plateX[lane], ey = targetY_ft - integrator.plateY[lane];
+        integrator.startVx[lane] += inv00[slot] * ex + inv01[slot] * ey;
+        integrator.startVy[lane] += inv10[slot] * ex + inv11[slot] * ey;
+    }
+
+    public double getStepSeconds() { return stepSeconds; }
+    public int getRefinements() { return refinements; }
+    public double getMagnusX(int slot) { return magnusX[slot]; }
+    public double getMagnusY(int slot) { return magnusY[slot]; }
+}
@@ -0,0 +1,69 @@
+package sim;
+
+import java.util.Arrays;
+
+// 空氣力學模型的軌跡，以固定步長取樣成表格，取樣點之間以三次 Hermite 內插 (位置與速度都連續)
+public final class AeroTrajectory implements Trajectory {
+    private final double step;
+    private final double[] x, y, z, vx, vy, vz;
+    private final double plateX_ft, plateY_ft, flightTime;
+
+    private AeroTrajectory(double step, double[] x, double[] y, double[] z, double[] vx, double[] vy, double[] vz,
+                           double plateX_ft, double plateY_ft, double flightTime) {
+        this.step = step;
+        this.x = x; this.y = y; this.z = z;
+        this.vx = vx; this.vy = vy; this.vz = vz;
+        this.plateX_ft = plateX_ft;
+        this.plateY_ft = plateY_ft;
+        this.flightTime = flightTime;
+    }
+
+    // 從積分器第 0 條已載入初始狀態的軌跡開始取樣，直到越過 plateZ
+    static AeroTrajectory tabulate(AeroIntegrator integrator, double step, double plateZ,
+                                   double plateX_ft, double plateY_ft, double flightTime) {
+        int samples = (int) Math.ceil(flightTime / step) + 2;
+        double[] x = new double[samples], y = new double[samples], z = new double[samples];
+        double[] vx = new double[samples], vy = new double[samples], vz = new double[samples];
+        int count = 0;
+        while (true) {
+            x[count] = integrator.x[0]; y[count] = integrator.y[0]; z[count] = integrator.z[0];
+            vx[count] = integrator.vx[0]; vy[count] = integrator.vy[0]; vz[count] = integrator.vz[0];
+            count++;
+            if (integrator.z[0] <= plateZ || count == samples) break;
+            integrator.step(1, step);
+        }
+        return new AeroTrajectory(step, Arrays.copyOf(x, count), Arrays.copyOf(y, count), Arrays.copyOf(z, count),
+                Arrays.copyOf(vx, count), Arrays.copyOf(vy, count), Arrays.copyOf(vz, count),
+                plateX_ft, plateY_ft, flightTime);
+    }
+
+    @Override public double xAt(double t) { return sample(x, vx, t); }
+    @Override public double yAt(double t) { return sample(y, vy, t); }
+    @Override public double zAt(double t) { return sample(z, vz, t); }
+
+    // 時間會被限制在 [0, flightTime]
+    private double sample(double[] p, double[] v, double t) {
+        t = t < 0 ? 0 : (t > flightTime ? flightTime : t);
+        int i = Math.min((int) (t / step), p.length - 2);
+        double s = (t - i * step) / step;
+        return AeroIntegrator.hermite(p[i], v[i], p[i + 1], v[i + 1], s, step);
+    }
+
+    // 到達本壘板時的速度 (ft/s)
+    public double getPlateSpeed() {
+        double s = flightTime / step;
+        int i = Math.min((int) s, x.length - 2);
+        double f = s - i;
+        double ux = vx[i] + (vx[i + 1] - vx[i]) * f;
+        double uy = vy[i] + (vy[i + 1] - vy[i]) * f;
+        double uz = vz[i] + (vz[i + 1] - vz[i]) * f;
+        return Math.sqrt(ux * ux + uy * uy + uz * uz);
+    }
+
+    @Override public double getStartX() { return x[0]; }
+    @Override public double getStartY() { return y[0]; }
+    @Override public double getStartZ() { return z[0]; }
+    @Override public double getPlateX() { return plateX_ft; }
+    @Override public double getPlateY() { return plateY_ft; }
+    @Override public double getFlightTime() { return flightTime; }
+}
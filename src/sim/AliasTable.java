@@ -0,0 +1,60 @@
+package sim;
+
+import java.util.random.RandomGenerator;
+
+// Walker/Vose 別名法：依權重 (例如 TRAJECTORY.USEP) 抽樣，每次抽樣 O(1) 且不配置物件
+// 表格只在權重改變 (換投手、換球種組合) 時重建
+public final class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("weights must not be empty");
+        }
+        double total = 0;
+        for (double w : weights) {
+            if (w < 0 || Double.isNaN(w)) {
+                throw new IllegalArgumentException("weights must be non-negative: " + w);
+            }
+            total += w;
+        }
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        for (int i = 0; i < n; i++) {
+            // 權重全為 0 時退回均勻分佈
+            scaled[i] = total > 0 ? weights[i] * n / total : 1.0;
+        }
+
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (scaled[i] < 1.0) small[smallCount++] = i; else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) small[smallCount++] = l; else large[largeCount++] = l;
+        }
+        // 剩下的 (含浮點誤差) 機率為 1
+        while (largeCount > 0) { int l = large[--largeCount]; probability[l] = 1.0; alias[l] = l; }
+        while (smallCount > 0) { int s = small[--smallCount]; probability[s] = 1.0; alias[s] = s; }
+    }
+
+    // 回傳 0 ~ size()-1 的索引
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package sim;
+
+import data.Arsenal;
+import data.TrajectoryData;
+
+// 等加速度下的封閉解軌跡：位置是 t 的二次式，任意時間點都能 O(1) 取樣
+// 物件不可變，可以安全地快取與跨執行緒共用
+public final class AnalyticTrajectory implements Trajectory {
+    private final double startX_ft, startY_ft, startZ_ft;
+    private final double vx, vy, vz;
+    private final double ax, ay;
+    private final double flightTime;
+
+    private AnalyticTrajectory(double startX_ft, double startY_ft, double startZ_ft,
+                               double vx, double vy, double vz, double ax, double ay, double flightTime) {
+        this.startX_ft = startX_ft;
+        this.startY_ft = startY_ft;
+        this.startZ_ft = startZ_ft;
+        this.vx = vx;
+        this.vy = vy;
+        this.vz = vz;
+        this.ax = ax;
+        this.ay = ay;
+        this.flightTime = flightTime;
+    }
+
+    // 根據球種數據與目標落點求解初速與加速度
+    public static AnalyticTrajectory solve(TrajectoryData data, double targetX_ft, double targetY_ft) {
+        return solve(data.getRex(), data.getRey(), data.getSpeed(), data.getHmov(), data.getVmov(), targetX_ft, targetY_ft);
+    }
+
+    // 直接讀取 Arsenal 的結構陣列
+    public static AnalyticTrajectory solve(Arsenal arsenal, int slot, double targetX_ft, double targetY_ft) {
+        return solve(arsenal.getRex(slot), arsenal.getRey(slot), arsenal.getSpeed(slot),
+                arsenal.getHmov(slot), arsenal.getVmov(slot), targetX_ft, targetY_ft);
+    }
+
+    public static AnalyticTrajectory solve(double rex_ft, double rey_ft, double speed_mph, double hmov_in, double vmov_in,
+                                           double targetX_ft, double targetY_ft) {
+        double startX_ft = rex_ft;
+        double startY_ft = rey_ft;
+        double startZ_ft = PitchSimulator.PITCHER_MOUND_DISTANCE_FT;
+
+        double releaseSpeed_fts = speed_mph * PitchSimulator.MPH_TO_FTS; // mph 轉 fts
+        double pfx_x_ft = hmov_in / 12.0; // inches 轉 ft
+        double pfx_z_ft = vmov_in / 12.0; // inches 轉 ft
+
+        double flightDistance = startZ_ft - PitchSimulator.HOME_PLATE_FRONT_FT;
+        double flightTime = flightDistance / releaseSpeed_fts;
+
+        // 計算加速度
+        double ax = (2 * pfx_x_ft) / (flightTime * flightTime);
+        double ay = (2 * pfx_z_ft) / (flightTime * flightTime);
+
+        // 計算初始速度
+        double vx = ((targetX_ft - startX_ft) / flightTime) - (0.5 * ax * flightTime);
+        double vy = ((targetY_ft - startY_ft) / flightTime) - (0.5 * ay * flightTime);
+
+        return new AnalyticTrajectory(startX_ft, startY_ft, startZ_ft, vx, vy, releaseSpeed_fts, ax, ay, flightTime);
+    }
+
+    // 出手點偏移 (dx, dy) 但落點不變的軌跡，初速依偏移量修正
+    public AnalyticTrajectory withReleaseOffset(double dx_ft, double dy_ft) {
+        return new AnalyticTrajectory(startX_ft + dx_ft, startY_ft + dy_ft, startZ_ft,
+                vx - dx_ft / flightTime, vy - dy_ft / flightTime, vz, ax, ay, flightTime);
+    }
+
+    // 時間會被限制在 [0, flightTime]
+    private double clampTime(double t) {
+        return t < 0 ? 0 : (t > flightTime ? flightTime : t);
+    }
+
+    @Override public double xAt(double t) { t = clampTime(t); return startX_ft + vx * t + 0.5 * ax * t * t; }
+    @Override public double yAt(double t) { t = clampTime(t); return startY_ft + vy * t + 0.5 * ay * t * t; }
+    @Override public double zAt(double t) { t = clampTime(t); return startZ_ft - vz * t; } // 球向攝影機 (Z軸負方向) 移動
+
+    // 球到達某個 z 的時間
+    public double timeAtZ(double z_ft) {
+        return clampTime((startZ_ft - z_ft) / vz);
+    }
+
+    // 到達本壘板時的速率 |v|，與 AERO 模式的 plateSpeed 是同一個量 (vz 固定，x、y 分量受加速度影響)
+    public double getPlateSpeed() {
+        double ux = vx + ax * flightTime, uy = vy + ay * flightTime;
+        return Math.sqrt(ux * ux + uy * uy + vz * vz);
+    }
+
+    @Override public double getPlateX() { return xAt(flightTime); }
+    @Override public double getPlateY() { return yAt(flightTime); }
+    @Override public double getStartX() { return startX_ft; }
+    @Override public double getStartY() { return startY_ft; }
+    @Override public double getStartZ() { return startZ_ft; }
+    public double getVx() { return vx; }
+    public double getVy() { return vy; }
+    public double getVz() { return vz; }
+    public double getAx() { return ax; }
+    public double getAy() { return ay; }
+    @Override public double getFlightTime() { return flightTime; }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package sim;
+
+// 透視投影攝影機：把場地座標 (ft) 投影成螢幕座標 (px)
+// 結果寫入呼叫端提供的 int 陣列，每幀投影不需要配置新物件
+public final class Camera {
+    public static final double BALL_DIAMETER_FT = 0.24;
+    public static final int MIN_BALL_SIZE_PX = 2;
+    // 遊戲畫面 (1000x700) 的打者視角，與 GamePanel 相同
+    public static final Camera BATTER_VIEW = new Camera(500, 350, 2.5, -4.0, 700);
+
+    private final int vanishingPointX;
+    private final int vanishingPointY;
+    private final double cameraY_ft;
+    private final double cameraZ_ft;
+    private final double focalLength;
+
+    public Camera(int vanishingPointX, int vanishingPointY, double cameraY_ft, double cameraZ_ft, double focalLength) {
+        this.vanishingPointX = vanishingPointX;
+        this.vanishingPointY = vanishingPointY;
+        this.cameraY_ft = cameraY_ft;
+        this.cameraZ_ft = cameraZ_ft;
+        this.focalLength = focalLength;
+    }
+
+    // 投影到 out[offset] (x) 與 out[offset + 1] (y)；物體在攝影機後方時回傳 false 且不寫入
+    public boolean project(double objX_ft, double objY_ft, double objZ_ft, int[] out, int offset) {
+        double deltaX = objX_ft - 0;
+        double deltaY = objY_ft - cameraY_ft;
+        double deltaZ = objZ_ft - cameraZ_ft;
+        if (deltaZ <= 0.1) return false;
+        double projectedX = (deltaX * focalLength) / deltaZ;
+        double projectedY = (deltaY * focalLength) / deltaZ;
+        out[offset] = vanishingPointX + (int) projectedX;
+        out[offset + 1] = vanishingPointY - (int) projectedY;
+        return true;
+    }
+
+    public boolean project(double objX_ft, double objY_ft, double objZ_ft, int[] out) {
+        return project(objX_ft, objY_ft, objZ_ft, out, 0);
+    }
+
+    // 球在某個深度的螢幕直徑 (px)
+    public int ballSize(double objZ_ft) {
+        double deltaZ = objZ_ft - cameraZ_ft;
+        if (deltaZ <= 0) return 0;
+        double visualSize = (BALL_DIAMETER_FT * focalLength) / deltaZ;
+        return Math.max(MIN_BALL_SIZE_PX, (int) visualSize);
+    }
+
+    public int getVanishingPointX() { return vanishingPointX; }
+    public int getVanishingPointY() { return vanishingPointY; }
+    public double getCameraY() { return cameraY_ft; }
+    public double getCameraZ() { return cameraZ_ft; }
+    public double getFocalLength() { return focalLength; }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package sim;
+
+import data.Arsenal;
+import data.Pitcher;
+import java.util.random.RandomGenerator;
+
+// 投手的控球模型：落點與出手點在瞄準點附近呈常態分佈
+// 標準差由 STUFF (20-80 評分，越高越準) 決定，VELOCITY 越高越難控制，位移越大的球種散佈越大
+public final class CommandModel {
+    public static final int DEFAULT_RATING = 50;
+
+    private static final int MIN_RATING = 20;
+    private static final int MAX_RATING = 80;
+    private static final double BEST_SIGMA_FT = 0.25;  // STUFF 80 的落點標準差
+    private static final double WORST_SIGMA_FT = 0.75; // STUFF 20 的落點標準差
+    private static final double VELOCITY_PENALTY = 0.15; // VELOCITY 80 時散佈增加 15%
+    private static final double MOVEMENT_INCHES_PER_SIGMA = 48.0; // 每 48 吋位移散佈加倍
+    private static final double RELEASE_SIGMA_RATIO = 0.2; // 出手點散佈相對於落點散佈的比例
+
+    private final int stuff;
+    private final int velocity;
+    private final double baseSigma_ft;
+
+    public CommandModel(int stuff, int velocity) {
+        this.stuff = stuff;
+        this.velocity = velocity;
+        double command = clamp((stuff - MIN_RATING) / (double) (MAX_RATING - MIN_RATING), 0, 1);
+        double effort = clamp((velocity - DEFAULT_RATING) / (double) (MAX_RATING - DEFAULT_RATING), -1, 1);
+        this.baseSigma_ft = (WORST_SIGMA_FT + (BEST_SIGMA_FT - WORST_SIGMA_FT) * command) * (1 + VELOCITY_PENALTY * effort);
+    }
+
+    // 沒有選擇投手時使用中等評分
+    public static CommandModel forPitcher(Pitcher pitcher) {
+        return pitcher != null ? new CommandModel(pitcher.getStuff(), pitcher.getVelocity())
+                : new CommandModel(DEFAULT_RATING, DEFAULT_RATING);
+    }
+
+    public double locationSigmaX(Arsenal arsenal, int slot) {
+        return baseSigma_ft * (1 + Math.abs(arsenal.getHmov(slot)) / MOVEMENT_INCHES_PER_SIGMA);
+    }
+
+    public double locationSigmaY(Arsenal arsenal, int slot) {
+        return baseSigma_ft * (1 + Math.abs(arsenal.getVmov(slot)) / MOVEMENT_INCHES_PER_SIGMA);
+    }
+
+    public double getReleaseSigma() {
+        return baseSigma_ft * RELEASE_SIGMA_RATIO;
+    }
+
+    // 在瞄準點附近抽出實際落點，寫入 out[0] (x), out[1] (y)
+    public void sampleLocation(RandomGenerator random, Arsenal arsenal, int slot, double aimX_ft, double aimY_ft, double[] out) {
+        out[0] = aimX_ft + random.nextGaussian() * locationSigmaX(arsenal, slot);
+        out[1] = aimY_ft + random.nextGaussian() * locationSigmaY(arsenal, slot);
+    }
+
+    // 瞄準 (aimX, aimY) 時落在好球帶內的機率；x、y 兩軸獨立，機率可以分開計算再相乘
+    public static double strikeProbability(double aimX_ft, double aimY_ft, double sigmaX_ft, double sigmaY_ft) {
+        return strikeProbabilityX(aimX_ft, sigmaX_ft) * strikeProbabilityY(aimY_ft, sigmaY_ft);
+    }
+
+    static double strikeProbabilityX(double aimX_ft, double sigmaX_ft) {
+        return normalCdf((PitchSimulator.STRIKE_ZONE_RIGHT_FT - aimX_ft) / sigmaX_ft)
+                - normalCdf((PitchSimulator.STRIKE_ZONE_LEFT_FT - aimX_ft) / sigmaX_ft);
+    }
+
+    static double strikeProbabilityY(double aimY_ft, double sigmaY_ft) {
+        return normalCdf((PitchSimulator.STRIKE_ZONE_TOP_FT - aimY_ft) / sigmaY_ft)
+                - normalCdf((PitchSimulator.STRIKE_ZONE_BOTTOM_FT - aimY_ft) / sigmaY_ft);
+    }
+
+    // 標準常態分佈的累積機率，erf 以 Abramowitz-Stegun 7.1.26 近似 (誤差 < 1.5e-7)
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        double erf = 1 - poly * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1 + erf) : 0.5 * (1 - erf);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    public int getStuff() { return stuff; }
+    public int getVelocity() { return velocity; }
+    public double getBaseSigma() { return baseSigma_ft; }
+}
@@ -0,0 +1,112 @@
+package sim;
+
+// 本壘板落點熱圖：可調解析度的格網計數，加上 Statcast 式的 13 區 (1-9 好球帶內，11-14 帶外四象限)
+// 只有整數計數，合併順序不影響結果，可以每個執行緒各自累積最後再合併
+public final class Heatmap {
+    public static final double MIN_X_FT = -2.5, MAX_X_FT = 2.5;
+    public static final double MIN_Y_FT = 0.0, MAX_Y_FT = 5.0;
+    public static final int ZONE_SLOTS = 15; // 索引 1-9 與 11-14 有效
+
+    private final int cellsPerFoot;
+    private final int cols;
+    private final int rows;
+    private final long[] counts; // row 0 為 MIN_Y_FT
+    private final long[] zoneCounts = new long[ZONE_SLOTS];
+    private long pitches;
+    private long strikes;
+    private long outOfGrid;
+
+    public Heatmap(int cellsPerFoot) {
+        if (cellsPerFoot < 1) {
+            throw new IllegalArgumentException("cellsPerFoot must be at least 1: " + cellsPerFoot);
+        }
+        this.cellsPerFoot = cellsPerFoot;
+        this.cols = (int) Math.round((MAX_X_FT - MIN_X_FT) * cellsPerFoot);
+        this.rows = (int) Math.round((MAX_Y_FT - MIN_Y_FT) * cellsPerFoot);
+        this.counts = new long[cols * rows];
+    }
+
+    public void record(double plateX_ft, double plateY_ft) {
+        pitches++;
+        int zone = zoneOf(plateX_ft, plateY_ft);
+        if (zone <= 9) strikes++;
+        zoneCounts[zone]++;
+
+        int col = (int) Math.floor((plateX_ft - MIN_X_FT) * cellsPerFoot);
+        int row = (int) Math.floor((plateY_ft - MIN_Y_FT) * cellsPerFoot);
+        if (col >= 0 && col < cols && row >= 0 && row < rows) {
+            counts[row * cols + col]++;
+        } else {
+            outOfGrid++;
+        }
+    }
+
+    public void merge(Heatmap other) {
+        if (other.cellsPerFoot != cellsPerFoot) {
+            throw new IllegalArgumentException("Cannot merge heatmaps with different resolutions");
+        }
+        pitches += other.pitches;
+        strikes += other.strikes;
+        outOfGrid += other.outOfGrid;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        for (int i = 0; i < ZONE_SLOTS; i++) {
+            zoneCounts[i] += other.zoneCounts[i];
+        }
+    }
+
+    // 多張熱圖 (例如各球種) 的加總
+    public static Heatmap sum(Heatmap[] heatmaps) {
+        if (heatmaps.length == 0) {
+            throw new IllegalArgumentException("heatmaps must not be empty");
+        }
+        Heatmap total = new Heatmap(heatmaps[0].cellsPerFoot);
+        for (Heatmap heatmap : heatmaps) {
+            total.merge(heatmap);
+        }
+        return total;
+    }
+
+    // 從捕手視角：好球帶切成 3x3 (1 為左上)，帶外依好球帶中心分成左上 11、右上 12、左下 13、右下 14
+    public static int zoneOf(double plateX_ft, double plateY_ft) {
+        double left = PitchSimulator.STRIKE_ZONE_LEFT_FT, right = PitchSimulator.STRIKE_ZONE_RIGHT_FT;
+        double top = PitchSimulator.STRIKE_ZONE_TOP_FT, bottom = PitchSimulator.STRIKE_ZONE_BOTTOM_FT;
+        if (PitchSimulator.isStrike(plateX_ft, plateY_ft)) {
+            int col = Math.min(2, (int) ((plateX_ft - left) * 3 / (right - left)));
+            int row = Math.min(2, (int) ((top - plateY_ft) * 3 / (top - bottom)));
+            return 1 + row * 3 + col;
+        }
+        boolean isLeft = plateX_ft < (left + right) / 2;
+        boolean isHigh = plateY_ft >= (top + bottom) / 2;
+        return isHigh ? (isLeft ? 11 : 12) : (isLeft ? 13 : 14);
+    }
+
+    public int getCellsPerFoot() { return cellsPerFoot; }
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public long getPitches() { return pitches; }
+    public long getStrikes() { return strikes; }
+    public long getOutOfGrid() { return outOfGrid; }
+    public double getStrikeRate() { return pitches == 0 ? 0 : (double) strikes / pitches; }
+
+    public long getCount(int col, int row) { return counts[row * cols + col]; }
+
+    public long getMaxCount() {
+        long max = 0;
+        for (long count : counts) {
+            if (count > max) max = count;
+        }
+        return max;
+    }
+
+    public long getZoneCount(int zone) { return zoneCounts[zone]; }
+
+    public double getZoneShare(int zone) {
+        return pitches == 0 ? 0 : (double) zoneCounts[zone] / pitches;
+    }
+
+    // 格子中心的座標
+    public double cellCenterX(int col) { return MIN_X_FT + (col + 0.5) / cellsPerFoot; }
+    public double cellCenterY(int row) { return MIN_Y_FT + (row + 0.5) / cellsPerFoot; }
+}
@@ -0,0 +1,105 @@
+package sim;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+// 熱圖輸出：格網與 13 區統計寫成 CSV，格網畫成 PNG (附好球帶外框)
+public final class HeatmapExport {
+    private static final Color ZONE_OUTLINE = new Color(255, 255, 255, 220);
+
+    private HeatmapExport() { }
+
+    // 每格一列：col,row,x_ft,y_ft,count,share (x、y 為格子中心)
+    public static void writeCsv(Heatmap heatmap, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("col,row,x_ft,y_ft,count,share");
+            out.newLine();
+            double pitches = Math.max(1, heatmap.getPitches());
+            for (int row = 0; row < heatmap.getRows(); row++) {
+                for (int col = 0; col < heatmap.getCols(); col++) {
+                    long count = heatmap.getCount(col, row);
+                    out.write(String.format(Locale.ROOT, "%d,%d,%.4f,%.4f,%d,%.6f",
+                            col, row, heatmap.cellCenterX(col), heatmap.cellCenterY(row), count, count / pitches));
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    // 13 區統計：zone,count,share；最後一列為好球率
+    public static void writeZoneCsv(Heatmap heatmap, Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("zone,count,share");
+            out.newLine();
+            for (int zone = 1; zone < Heatmap.ZONE_SLOTS; zone++) {
+                if (zone == 10) continue; // Statcast 沒有 10 區
+                out.write(String.format(Locale.ROOT, "%d,%d,%.6f", zone, heatmap.getZoneCount(zone), heatmap.getZoneShare(zone)));
+                out.newLine();
+            }
+            out.write(String.format(Locale.ROOT, "strike,%d,%.6f", heatmap.getStrikes(), heatmap.getStrikeRate()));
+            out.newLine();
+        }
+    }
+
+    public static void writePng(Heatmap heatmap, Path file, int cellPx) throws IOException {
+        ImageIO.write(toImage(heatmap, cellPx, false), "png", file.toFile());
+    }
+
+    // row 0 (最低處) 畫在影像底部；translucent 為 true 時空格透明、密度低的格子較淡，可疊在場景上
+    public static BufferedImage toImage(Heatmap heatmap, int cellPx, boolean translucent) {
+        int cols = heatmap.getCols(), rows = heatmap.getRows();
+        BufferedImage image = new BufferedImage(cols * cellPx, rows * cellPx, BufferedImage.TYPE_INT_ARGB);
+        double max = Math.max(1, heatmap.getMaxCount());
+        for (int row = 0; row < rows; row++) {
+            int top = (rows - 1 - row) * cellPx;
+            for (int col = 0; col < cols; col++) {
+                double density = heatmap.getCount(col, row) / max;
+                int argb = translucent ? translucentColor(density) : heatColor(density);
+                for (int y = 0; y < cellPx; y++) {
+                    for (int x = 0; x < cellPx; x++) {
+                        image.setRGB(col * cellPx + x, top + y, argb);
+                    }
+                }
+            }
+        }
+        if (!translucent) {
+            drawStrikeZone(image, heatmap, cellPx);
+        }
+        return image;
+    }
+
+    // 0 = 黑、0.33 = 紅、0.66 = 黃、1 = 白 (不透明)
+    public static int heatColor(double t) {
+        t = t < 0 ? 0 : (t > 1 ? 1 : t);
+        int red = (int) Math.min(255, t * 3 * 255);
+        int green = (int) Math.max(0, Math.min(255, (t * 3 - 1) * 255));
+        int blue = (int) Math.max(0, Math.min(255, (t * 3 - 2) * 255));
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+
+    private static int translucentColor(double t) {
+        if (t <= 0) return 0;
+        int alpha = (int) (60 + 140 * Math.min(1, t));
+        return (alpha << 24) | (heatColor(0.33 + 0.67 * t) & 0x00FFFFFF);
+    }
+
+    private static void drawStrikeZone(BufferedImage image, Heatmap heatmap, int cellPx) {
+        double pxPerFoot = heatmap.getCellsPerFoot() * cellPx;
+        int left = (int) Math.round((PitchSimulator.STRIKE_ZONE_LEFT_FT - Heatmap.MIN_X_FT) * pxPerFoot);
+        int right = (int) Math.round((PitchSimulator.STRIKE_ZONE_RIGHT_FT - Heatmap.MIN_X_FT) * pxPerFoot);
+        int top = (int) Math.round((Heatmap.MAX_Y_FT - PitchSimulator.STRIKE_ZONE_TOP_FT) * pxPerFoot);
+        int bottom = (int) Math.round((Heatmap.MAX_Y_FT - PitchSimulator.STRIKE_ZONE_BOTTOM_FT) * pxPerFoot);
+        Graphics2D g = image.createGraphics();
+        g.setColor(ZONE_OUTLINE);
+        g.drawRect(left, top, right - left, bottom - top);
+        g.dispose();
+    }
+}
@@ -0,0 +1,237 @@
+package sim;
+
+import data.Arsenal;
+import data.TrajectoryData;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+// 多核心批次投球模擬
+// 工作切成固定大小的區塊，每個區塊有自己的 SplittableRandom，
+// 區塊種子只由 seed 決定，結果依區塊順序合併，因此任何執行緒數量都得到相同結果
+public class MonteCarloSimulator {
+    public static final int CHUNK_SIZE = 1 << 14;
+
+    private final long seed;
+    private final int parallelism;
+    private final PhysicsModel physics;
+
+    public MonteCarloSimulator(long seed) {
+        this(seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MonteCarloSimulator(long seed, int parallelism) {
+        this(seed, parallelism, PhysicsModel.ANALYTIC);
+    }
+
+    public MonteCarloSimulator(long seed, int parallelism, PhysicsModel physics) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.physics = physics;
+    }
+
+    // 以打擊模式的落點分佈模擬單一球種
+    public SimulationResult simulate(TrajectoryData data, long pitches) {
+        return simulate(data, pitches, PitchTargets.HITTING_MODE);
+    }
+
+    public SimulationResult simulate(TrajectoryData data, long pitches, TargetDistribution targets) {
+        return simulateArsenal(Arsenal.of(Collections.singletonMap("PITCH", data)), pitches, targets)[0];
+    }
+
+    // 模擬投手的完整球種組合：每一球依 USEP 以別名法抽出球種，回傳各球種的結果 (與 arsenal 槽位順序相同)
+    public SimulationResult[] simulateArsenal(Arsenal arsenal, long pitches) {
+        return simulateArsenal(arsenal, pitches, PitchTargets.HITTING_MODE);
+    }
+
+    public SimulationResult[] simulateArsenal(Arsenal arsenal, long pitches, TargetDistribution targets) {
+        checkArguments(arsenal, pitches);
+        long[] chunkSeeds = chunkSeeds(pitches);
+        AliasTable mix = new AliasTable(arsenal.getUsageWeights());
+        AeroModel aero = calibrate(arsenal);
+
+        // SimulationResult 含浮點數加總，必須依區塊順序合併
+        AtomicBoolean cancelled = new AtomicBoolean();
+        SimulationResult[][] partials = runInPool(cancelled, () -> IntStream.range(0, chunkSeeds.length).parallel()
+                .mapToObj(chunk -> {
+                    checkCancelled(cancelled);
+                    return runChunk(arsenal, mix, targets, aero, chunkSeeds[chunk], chunkLength(pitches, chunk));
+                })
+                .toArray(SimulationResult[][]::new));
+
+        SimulationResult[] totals = new SimulationResult[arsenal.size()];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new SimulationResult();
+        }
+        for (SimulationResult[] partial : partials) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i].merge(partial[i]);
+            }
+        }
+        return totals;
+    }
+
+    // 各球種的落點熱圖 (與 arsenal 槽位順序相同)
+    // 每個工作執行緒累積在自己的熱圖，區塊之間不配置物件也不互相競爭，最後一次合併
+    // 熱圖只有整數計數，合併順序不影響結果，仍然與執行緒數量無關
+    public Heatmap[] heatmaps(Arsenal arsenal, long pitches, TargetDistribution targets, int cellsPerFoot) {
+        checkArguments(arsenal, pitches);
+        long[] chunkSeeds = chunkSeeds(pitches);
+        AliasTable mix = new AliasTable(arsenal.getUsageWeights());
+        AeroModel aero = calibrate(arsenal);
+
+        List<Heatmap[]> perThread = new CopyOnWriteArrayList<>();
+        ThreadLocal<Heatmap[]> local = ThreadLocal.withInitial(() -> {
+            Heatmap[] heatmaps = newHeatmaps(arsenal.size(), cellsPerFoot);
+            perThread.add(heatmaps);
+            return heatmaps;
+        });
+        AtomicBoolean cancelled = new AtomicBoolean();
+        runInPool(cancelled, () -> {
+            IntStream.range(0, chunkSeeds.length).parallel().forEach(chunk -> {
+                checkCancelled(cancelled);
+                fillChunk(local.get(), arsenal, mix, targets, aero, chunkSeeds[chunk], chunkLength(pitches, chunk));
+            });
+            return null;
+        });
+
+        Heatmap[] totals = newHeatmaps(arsenal.size(), cellsPerFoot);
+        for (Heatmap[] heatmaps : perThread) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i].merge(heatmaps[i]);
+            }
+        }
+        return totals;
+    }
+
+    private static void checkArguments(Arsenal arsenal, long pitches) {
+        if (arsenal.isEmpty()) {
+            throw new IllegalArgumentException("arsenal must not be empty");
+        }
+        if (pitches < 0) {
+            throw new IllegalArgumentException("pitches must not be negative: " + pitches);
+        }
+    }
+
+    private long[] chunkSeeds(long pitches) {
+        int chunks = (int) ((pitches + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        long[] chunkSeeds = new long[chunks];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < chunks; i++) {
+            chunkSeeds[i] = root.nextLong();
+        }
+        return chunkSeeds;
+    }
+
+    private static long chunkLength(long pitches, int chunk) {
+        return Math.min(CHUNK_SIZE, pitches - (long) chunk * CHUNK_SIZE);
+    }
+
+    // 在專用的 ForkJoinPool 執行，不佔用 common pool
+    // 呼叫端執行緒被中斷 (例如背景工作已取消) 時設定 cancelled，尚未開始的區塊不再執行
+    private <T> T runInPool(AtomicBoolean cancelled, Callable<T> task) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void checkCancelled(AtomicBoolean cancelled) {
+        if (cancelled.get()) throw new CancellationException("Simulation cancelled");
+    }
+
+    private static Heatmap[] newHeatmaps(int size, int cellsPerFoot) {
+        Heatmap[] heatmaps = new Heatmap[size];
+        for (int i = 0; i < size; i++) {
+            heatmaps[i] = new Heatmap(cellsPerFoot);
+        }
+        return heatmaps;
+    }
+
+    // AERO 模式每次模擬只校正一次，所有執行緒共用 (校正後不再修改)
+    private AeroModel calibrate(Arsenal arsenal) {
+        return physics == PhysicsModel.AERO ? AeroModel.calibrate(arsenal) : null;
+    }
+
+    private SimulationResult[] runChunk(Arsenal arsenal, AliasTable mix, TargetDistribution targets, AeroModel aero,
+                                        long chunkSeed, long count) {
+        SimulationResult[] results = new SimulationResult[arsenal.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new SimulationResult();
+        }
+        runPitches(arsenal, mix, targets, aero, chunkSeed, count, (slot, plateX, plateY, flightTime, plateSpeed) -> {
+            results[slot].record(plateX, plateY, PitchSimulator.isStrike(plateX, plateY));
+            results[slot].recordFlight(flightTime, plateSpeed);
+        });
+        return results;
+    }
+
+    private void fillChunk(Heatmap[] heatmaps, Arsenal arsenal, AliasTable mix, TargetDistribution targets, AeroModel aero,
+                           long chunkSeed, long count) {
+        runPitches(arsenal, mix, targets, aero, chunkSeed, count,
+                (slot, plateX, plateY, flightTime, plateSpeed) -> heatmaps[slot].record(plateX, plateY));
+    }
+
+    private interface PitchSink {
+        void accept(int slot, double plateX_ft, double plateY_ft, double flightTime, double plateSpeed_fts);
+    }
+
+    // 依序抽出一個區塊的投球並求出本壘板位置；兩種模式消耗亂數的順序相同
+    private static void runPitches(Arsenal arsenal, AliasTable mix, TargetDistribution targets, AeroModel aero,
+                                   long chunkSeed, long count, PitchSink sink) {
+        SplittableRandom random = new SplittableRandom(chunkSeed);
+        double[] target = new double[2];
+        if (aero == null) {
+            for (long i = 0; i < count; i++) {
+                int slot = arsenal.size() == 1 ? 0 : mix.sample(random);
+                targets.sample(random, arsenal, slot, target);
+                // 封閉解直接取本壘板位置，不需要逐步積分
+                AnalyticTrajectory trajectory = AnalyticTrajectory.solve(arsenal, slot, target[0], target[1]);
+                sink.accept(slot, trajectory.getPlateX(), trajectory.getPlateY(), trajectory.getFlightTime(), trajectory.getPlateSpeed());
+            }
+            return;
+        }
+        // AERO：先抽出一整批目標，再交給批次積分器一起積分
+        int batch = AeroModel.BATCH_SIZE;
+        int[] slots = new int[batch];
+        double[] targetX = new double[batch], targetY = new double[batch];
+        double[] plateX = new double[batch], plateY = new double[batch];
+        double[] flightTime = new double[batch], plateSpeed = new double[batch];
+        for (long done = 0; done < count; done += batch) {
+            int n = (int) Math.min(batch, count - done);
+            for (int i = 0; i < n; i++) {
+                int slot = arsenal.size() == 1 ? 0 : mix.sample(random);
+                targets.sample(random, arsenal, slot, target);
+                slots[i] = slot;
+                targetX[i] = target[0];
+                targetY[i] = target[1];
+            }
+            aero.solveBatch(n, slots, targetX, targetY, plateX, plateY, flightTime, plateSpeed);
+            for (int i = 0; i < n; i++) {
+                sink.accept(slots[i], plateX[i], plateY[i], flightTime[i], plateSpeed[i]);
+            }
+        }
+    }
+
+    public long getSeed() { return seed; }
+    public int getParallelism() { return parallelism; }
+    public PhysicsModel getPhysics() { return physics; }
+}
@@ -0,0 +1,20 @@
+package sim;
+
+import java.util.Locale;
+
+// 飛行模型：ANALYTIC 以固定加速度重現 HMOV/VMOV (封閉解)，AERO 加入阻力與 Magnus 力並以 RK4 積分
+public enum PhysicsModel {
+    ANALYTIC, AERO;
+
+    // 由系統屬性選擇，例如 -Dgame.physics=aero；未設定或無法辨識時使用 ANALYTIC
+    public static PhysicsModel fromSystemProperty(String key) {
+        String value = System.getProperty(key);
+        if (value == null) return ANALYTIC;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown " + key + "=" + value + ", using ANALYTIC");
+            return ANALYTIC;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package sim;
+
+import data.TrajectoryData;
+
+// 與畫面無關的投球物理引擎：固定時間步長推進，並提供插值後的渲染位置
+// 每一步直接從封閉解軌跡取樣，不會因步長累積誤差
+// 不依賴 Swing，可以在沒有顯示器的伺服器上批次執行
+public class PitchSimulator {
+    // 物理常數
+    public static final double PITCHER_MOUND_DISTANCE_FT = 60.5;
+    public static final double HOME_PLATE_FRONT_FT = 1.417;
+    public static final double MPH_TO_FTS = 1.467;
+
+    // 好球帶定義
+    public static final double STRIKE_ZONE_LEFT_FT = -0.83;
+    public static final double STRIKE_ZONE_RIGHT_FT = 0.83;
+    public static final double STRIKE_ZONE_TOP_FT = 3.5;
+    public static final double STRIKE_ZONE_BOTTOM_FT = 1.5;
+
+    // 預設步長 240Hz，每一步的結果與幀率無關
+    public static final double DEFAULT_STEP_SECONDS = 1.0 / 240.0;
+    // 單次 advance 最多補上的時間，避免卡頓後一次補太多步
+    private static final double MAX_FRAME_SECONDS = 0.25;
+
+    private final double stepSeconds;
+
+    // 球的狀態 (目前步與上一步，用於渲染插值)
+    private double x_ft, y_ft, z_ft;
+    private double prevX_ft, prevY_ft, prevZ_ft;
+    private Trajectory trajectory;
+
+    // 軌跡起點與終點
+    private final double startZ_ft = PITCHER_MOUND_DISTANCE_FT;
+    private final double endZ_ft = HOME_PLATE_FRONT_FT;
+
+    // 時間管理
+    private double simTime;
+    private double accumulator;
+
+    private boolean inFlight = false;
+    private boolean reachedPlate = false;
+
+    public PitchSimulator() {
+        this(DEFAULT_STEP_SECONDS);
+    }
+
+    public PitchSimulator(double stepSeconds) {
+        if (stepSeconds <= 0) {
+            throw new IllegalArgumentException("stepSeconds must be positive: " + stepSeconds);
+        }
+        this.stepSeconds = stepSeconds;
+    }
+
+    // 將球放回投手釋放點，不在飛行中
+    public void reset(double releaseX_ft, double releaseY_ft) {
+        trajectory = null;
+        x_ft = prevX_ft = releaseX_ft;
+        y_ft = prevY_ft = releaseY_ft;
+        z_ft = prevZ_ft = startZ_ft;
+        simTime = 0;
+        accumulator = 0;
+        inFlight = false;
+        reachedPlate = false;
+    }
+
+    // 根據球種數據與目標落點計算等加速度軌跡，並開始飛行
+    public void launch(TrajectoryData data, double targetX_ft, double targetY_ft) {
+        launch(AnalyticTrajectory.solve(data, targetX_ft, targetY_ft));
+    }
+
+    // 使用已求解 (例如從 TrajectoryCache 取得) 的軌跡開始飛行
+    public void launch(Trajectory trajectory) {
+        reset(trajectory.getStartX(), trajectory.getStartY());
+        this.trajectory = trajectory;
+        inFlight = true;
+    }
+
+    // 依實際經過的時間推進，內部以固定步長執行，回傳執行的步數
+    public int advance(double frameSeconds) {
+        if (!inFlight) return 0;
+        accumulator += Math.min(Math.max(frameSeconds, 0), MAX_FRAME_SECONDS);
+        int steps = 0;
+        while (accumulator >= stepSeconds && inFlight) {
+            step();
+            accumulator -= stepSeconds;
+            steps++;
+        }
+        if (!inFlight) accumulator = 0;
+        return steps;
+    }
+
+    // 單一固定步長；位置由封閉解取樣
+    public void step() {
+        if (!inFlight) return;
+        prevX_ft = x_ft; prevY_ft = y_ft; prevZ_ft = z_ft;
+        simTime += stepSeconds;
+
+        if (simTime >= trajectory.getFlightTime()) {
+            // 球到達本壘板前的精確位置
+            runToPlate();
+            return;
+        }
+        x_ft = trajectory.xAt(simTime);
+        y_ft = trajectory.yAt(simTime);
+        z_ft = trajectory.zAt(simTime);
+    }
+
+    // 無渲染時直接跳到本壘板
+    public void runToPlate() {
+        if (!inFlight) return;
+        simTime = trajectory.getFlightTime();
+        x_ft = prevX_ft = trajectory.getPlateX();
+        y_ft = prevY_ft = trajectory.getPlateY();
+        z_ft = prevZ_ft = endZ_ft;
+        inFlight = false;
+        reachedPlate = true;
+    }
+
+    // 渲染插值比例 (0~1)，介於上一步與目前步之間
+    private double alpha() {
+        return inFlight ? accumulator / stepSeconds : 1.0;
+    }
+
+    public double getRenderX() { double a = alpha(); return prevX_ft + (x_ft - prevX_ft) * a; }
+    public double getRenderY() { double a = alpha(); return prevY_ft + (y_ft - prevY_ft) * a; }
+    public double getRenderZ() { double a = alpha(); return prevZ_ft + (z_ft - prevZ_ft) * a; }
+
+    public double getX() { return x_ft; }
+    public double getY() { return y_ft; }
+    public double getZ() { return z_ft; }
+    public double getStartZ() { return startZ_ft; }
+    public double getEndZ() { return endZ_ft; }
+    public double getFlightTime() { return trajectory == null ? 0 : trajectory.getFlightTime(); }
+    public Trajectory getTrajectory() { return trajectory; }
+    public double getSimTime() { return simTime; }
+    // 引擎時鐘 = 已執行的步數時間 + 尚未消化的時間，與最後一次 advance 時的實際時間對齊
+    public double getClockTime() { return inFlight ? simTime + accumulator : simTime; }
+    public double getStepSeconds() { return stepSeconds; }
+    public boolean isInFlight() { return inFlight; }
+    public boolean hasReachedPlate() { return reachedPlate; }
+
+    public boolean isStrike() {
+        return reachedPlate && isStrike(x_ft, y_ft);
+    }
+
+    public static boolean isStrike(double x_ft, double y_ft) {
+        return x_ft >= STRIKE_ZONE_LEFT_FT && x_ft <= STRIKE_ZONE_RIGHT_FT
+            && y_ft >= STRIKE_ZONE_BOTTOM_FT && y_ft <= STRIKE_ZONE_TOP_FT;
+    }
+}
\ No newline at end of file
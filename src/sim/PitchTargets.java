@@ -0,0 +1,73 @@
+package sim;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+// 打擊模式的落點分佈：60% 投進好球帶，40% 投在好球帶外
+// 遊戲與批次模擬共用，亂數來源由呼叫端提供；另提供批次模擬可選用的其他分佈
+public final class PitchTargets {
+    public static final double ZONE_PROBABILITY = 0.6;
+    public static final double OUTSIDE_MARGIN_FT = 0.5;
+
+    public static final TargetDistribution HITTING_MODE = (random, arsenal, slot, out) -> hittingModeTarget(random, out);
+
+    private PitchTargets() { }
+
+    // 將目標落點寫入 out[0] (x) 與 out[1] (y)
+    public static void hittingModeTarget(RandomGenerator random, double[] out) {
+        zoneMixTarget(random, ZONE_PROBABILITY, OUTSIDE_MARGIN_FT, out);
+    }
+
+    // 與打擊模式相同的形狀，但好球帶內的比例與帶外的距離可調整
+    public static TargetDistribution zoneMix(double zoneProbability, double outsideMargin_ft) {
+        if (zoneProbability < 0 || zoneProbability > 1) {
+            throw new IllegalArgumentException("zoneProbability must be in [0, 1]: " + zoneProbability);
+        }
+        return (random, arsenal, slot, out) -> zoneMixTarget(random, zoneProbability, outsideMargin_ft, out);
+    }
+
+    // 矩形範圍內均勻分佈
+    public static TargetDistribution uniform(double minX_ft, double maxX_ft, double minY_ft, double maxY_ft) {
+        return (random, arsenal, slot, out) -> {
+            out[0] = minX_ft + random.nextDouble() * (maxX_ft - minX_ft);
+            out[1] = minY_ft + random.nextDouble() * (maxY_ft - minY_ft);
+        };
+    }
+
+    // 固定瞄準點，加上投手的控球誤差 (依球種位移不同)
+    public static TargetDistribution aimed(CommandModel model, double aimX_ft, double aimY_ft) {
+        return (random, arsenal, slot, out) -> model.sampleLocation(random, arsenal, slot, aimX_ft, aimY_ft, out);
+    }
+
+    // 由命令列或系統屬性的文字建立分佈：
+    // hitting | zone:<機率>[:<帶外距離>] | uniform | aim:<x>:<y>[:<stuff>:<velocity>]
+    public static TargetDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        switch (parts[0]) {
+            case "hitting":
+                return HITTING_MODE;
+            case "zone":
+                return zoneMix(Double.parseDouble(parts[1]), parts.length > 2 ? Double.parseDouble(parts[2]) : OUTSIDE_MARGIN_FT);
+            case "uniform":
+                return uniform(Heatmap.MIN_X_FT, Heatmap.MAX_X_FT, Heatmap.MIN_Y_FT, Heatmap.MAX_Y_FT);
+            case "aim":
+                int stuff = parts.length > 3 ? Integer.parseInt(parts[3]) : CommandModel.DEFAULT_RATING;
+                int velocity = parts.length > 4 ? Integer.parseInt(parts[4]) : CommandModel.DEFAULT_RATING;
+                return aimed(new CommandModel(stuff, velocity), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+            default:
+                throw new IllegalArgumentException("Unknown target distribution: " + spec);
+        }
+    }
+
+    private static void zoneMixTarget(RandomGenerator random, double zoneProbability, double margin, double[] out) {
+        double left = PitchSimulator.STRIKE_ZONE_LEFT_FT, right = PitchSimulator.STRIKE_ZONE_RIGHT_FT;
+        double top = PitchSimulator.STRIKE_ZONE_TOP_FT, bottom = PitchSimulator.STRIKE_ZONE_BOTTOM_FT;
+        if (random.nextDouble() < zoneProbability) { // 投進好球帶
+            out[0] = random.nextDouble() * (right - left) + left;
+            out[1] = random.nextDouble() * (top - bottom) + bottom;
+        } else { // 投在好球帶外
+            out[0] = (random.nextBoolean() ? 1 : -1) * (right + margin);
+            out[1] = random.nextDouble() * (top + margin - (bottom - margin)) + (bottom - margin);
+        }
+    }
+}
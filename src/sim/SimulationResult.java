@@ -0,0 +1,75 @@
+package sim;
+
+// 批次模擬的統計結果：好壞球數量與本壘板落點分佈
+public class SimulationResult {
+    // 落點格網：x 在 [-2.5, 2.5) ft，y 在 [0, 5) ft，每格 0.25 ft
+    public static final double GRID_MIN_X_FT = -2.5;
+    public static final double GRID_MIN_Y_FT = 0.0;
+    public static final double GRID_CELL_FT = 0.25;
+    public static final int GRID_COLUMNS = 20;
+    public static final int GRID_ROWS = 20;
+
+    private long pitches;
+    private long strikes;
+    private long outOfGrid;
+    private double sumX, sumY, sumXX, sumYY;
+    private double sumFlightTime, sumPlateSpeed;
+    private final long[] locationCounts = new long[GRID_COLUMNS * GRID_ROWS];
+
+    public void record(double plateX_ft, double plateY_ft, boolean strike) {
+        pitches++;
+        if (strike) strikes++;
+        sumX += plateX_ft; sumY += plateY_ft;
+        sumXX += plateX_ft * plateX_ft; sumYY += plateY_ft * plateY_ft;
+
+        int col = (int) Math.floor((plateX_ft - GRID_MIN_X_FT) / GRID_CELL_FT);
+        int row = (int) Math.floor((plateY_ft - GRID_MIN_Y_FT) / GRID_CELL_FT);
+        if (col >= 0 && col < GRID_COLUMNS && row >= 0 && row < GRID_ROWS) {
+            locationCounts[row * GRID_COLUMNS + col]++;
+        } else {
+            outOfGrid++;
+        }
+    }
+
+    // 飛行時間 (秒) 與到達本壘板時的速度 (ft/s)；每一球呼叫一次，與 record 搭配
+    public void recordFlight(double flightTime, double plateSpeed_fts) {
+        sumFlightTime += flightTime;
+        sumPlateSpeed += plateSpeed_fts;
+    }
+
+    // 合併另一份結果；呼叫端需以固定順序合併，才能保證浮點數加總可重現
+    public void merge(SimulationResult other) {
+        pitches += other.pitches;
+        strikes += other.strikes;
+        outOfGrid += other.outOfGrid;
+        sumX += other.sumX; sumY += other.sumY;
+        sumXX += other.sumXX; sumYY += other.sumYY;
+        sumFlightTime += other.sumFlightTime;
+        sumPlateSpeed += other.sumPlateSpeed;
+        for (int i = 0; i < locationCounts.length; i++) {
+            locationCounts[i] += other.locationCounts[i];
+        }
+    }
+
+    public long getPitches() { return pitches; }
+    public long getStrikes() { return strikes; }
+    public long getBalls() { return pitches - strikes; }
+    public long getOutOfGrid() { return outOfGrid; }
+    public double getStrikeRate() { return pitches == 0 ? 0 : (double) strikes / pitches; }
+    public double getMeanX() { return pitches == 0 ? 0 : sumX / pitches; }
+    public double getMeanY() { return pitches == 0 ? 0 : sumY / pitches; }
+    public double getMeanFlightTime() { return pitches == 0 ? 0 : sumFlightTime / pitches; }
+    public double getMeanPlateSpeed() { return pitches == 0 ? 0 : sumPlateSpeed / pitches; }
+    public double getStdDevX() { return stdDev(sumX, sumXX); }
+    public double getStdDevY() { return stdDev(sumY, sumYY); }
+
+    public long getLocationCount(int col, int row) {
+        return locationCounts[row * GRID_COLUMNS + col];
+    }
+
+    private double stdDev(double sum, double sumSq) {
+        if (pitches < 2) return 0;
+        double mean = sum / pitches;
+        return Math.sqrt(Math.max(0, sumSq / pitches - mean * mean));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package sim;
+
+import data.Arsenal;
+
+// 某個球種在整個瞄準範圍內的好球機率表，建立後不可變更
+// 在背景執行緒計算一次，滑鼠移動時只做雙線性內插，不需要每次事件都重新計算
+public final class StrikeProbabilityGrid {
+    // 與 GamePanel 的瞄準範圍相同
+    public static final double MIN_X_FT = -2.0, MAX_X_FT = 2.0;
+    public static final double MIN_Y_FT = 0.5, MAX_Y_FT = 4.5;
+    public static final double CELL_FT = 1.0 / 24.0; // 半英吋
+
+    private final int cols;
+    private final int rows;
+    private final float[] probability; // row 0 為 MIN_Y_FT
+    private final double sigmaX_ft;
+    private final double sigmaY_ft;
+
+    private StrikeProbabilityGrid(int cols, int rows, float[] probability, double sigmaX_ft, double sigmaY_ft) {
+        this.cols = cols;
+        this.rows = rows;
+        this.probability = probability;
+        this.sigmaX_ft = sigmaX_ft;
+        this.sigmaY_ft = sigmaY_ft;
+    }
+
+    public static StrikeProbabilityGrid compute(CommandModel model, Arsenal arsenal, int slot) {
+        double sigmaX = model.locationSigmaX(arsenal, slot);
+        double sigmaY = model.locationSigmaY(arsenal, slot);
+        int cols = (int) Math.round((MAX_X_FT - MIN_X_FT) / CELL_FT) + 1;
+        int rows = (int) Math.round((MAX_Y_FT - MIN_Y_FT) / CELL_FT) + 1;
+
+        // 兩軸獨立：先算每一欄與每一列的機率，格點機率為兩者乘積
+        double[] px = new double[cols];
+        for (int c = 0; c < cols; c++) {
+            px[c] = CommandModel.strikeProbabilityX(MIN_X_FT + c * CELL_FT, sigmaX);
+        }
+        float[] probability = new float[cols * rows];
+        for (int r = 0; r < rows; r++) {
+            double py = CommandModel.strikeProbabilityY(MIN_Y_FT + r * CELL_FT, sigmaY);
+            int offset = r * cols;
+            for (int c = 0; c < cols; c++) {
+                probability[offset + c] = (float) (px[c] * py);
+            }
+        }
+        return new StrikeProbabilityGrid(cols, rows, probability, sigmaX, sigmaY);
+    }
+
+    // 雙線性內插；超出範圍時以邊界值計算
+    public double probabilityAt(double x_ft, double y_ft) {
+        double fx = clamp((x_ft - MIN_X_FT) / CELL_FT, cols - 1);
+        double fy = clamp((y_ft - MIN_Y_FT) / CELL_FT, rows - 1);
+        int c = Math.min((int) fx, cols - 2);
+        int r = Math.min((int) fy, rows - 2);
+        double tx = fx - c, ty = fy - r;
+        int i = r * cols + c;
+        double bottom = probability[i] + (probability[i + 1] - probability[i]) * tx;
+        double top = probability[i + cols] + (probability[i + cols + 1] - probability[i + cols]) * tx;
+        return bottom + (top - bottom) * ty;
+    }
+
+    private static double clamp(double value, double max) {
+        return value < 0 ? 0 : (value > max ? max : value);
+    }
+
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public double getProbability(int col, int row) { return probability[row * cols + col]; }
+    public double getSigmaX() { return sigmaX_ft; }
+    public double getSigmaY() { return sigmaY_ft; }
+}
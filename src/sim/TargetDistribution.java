@@ -0,0 +1,11 @@
+package sim;
+
+import data.Arsenal;
+import java.util.random.RandomGenerator;
+
+// 批次模擬的目標落點分佈，寫入 out[0] (x) 與 out[1] (y)
+// 實作只能使用傳入的亂數來源，多執行緒模擬的結果才可重現
+@FunctionalInterface
+public interface TargetDistribution {
+    void sample(RandomGenerator random, Arsenal arsenal, int slot, double[] out);
+}
@@ -0,0 +1,16 @@
+package sim;
+
+// 一球的飛行軌跡，可在任意時間點取樣；時間會被限制在 [0, getFlightTime()]
+// 實作必須不可變，才能快取與跨執行緒共用
+public interface Trajectory {
+    double xAt(double t);
+    double yAt(double t);
+    double zAt(double t);
+
+    double getStartX();
+    double getStartY();
+    double getStartZ();
+    double getPlateX();
+    double getPlateY();
+    double getFlightTime();
+}
@@ -0,0 +1,106 @@
+package sim;
+
+import data.Arsenal;
+import data.TrajectoryData;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 已求解軌跡的 LRU 快取，鍵為 (PID, BID, 量化後的目標落點)
+// 目標以 1/4 英吋為單位量化，瞄準、重播與批次模擬可以重複使用同一條軌跡
+public class TrajectoryCache {
+    public static final double TARGET_QUANTUM_FT = 1.0 / 48.0;
+
+    private final int capacity;
+    private final Map<Key, AnalyticTrajectory> entries;
+    private long hits;
+    private long misses;
+
+    public TrajectoryCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, AnalyticTrajectory> eldest) {
+                return size() > TrajectoryCache.this.capacity;
+            }
+        };
+    }
+
+    // 取得 (或求解並快取) 指向量化後目標的軌跡
+    public synchronized AnalyticTrajectory get(TrajectoryData data, double targetX_ft, double targetY_ft) {
+        int qx = quantize(targetX_ft);
+        int qy = quantize(targetY_ft);
+        Key key = new Key(data.getPid(), data.getBid(), qx, qy);
+        AnalyticTrajectory trajectory = entries.get(key);
+        if (trajectory != null) {
+            hits++;
+            return trajectory;
+        }
+        misses++;
+        trajectory = AnalyticTrajectory.solve(data, qx * TARGET_QUANTUM_FT, qy * TARGET_QUANTUM_FT);
+        entries.put(key, trajectory);
+        return trajectory;
+    }
+
+    public synchronized AnalyticTrajectory get(Arsenal arsenal, int slot, double targetX_ft, double targetY_ft) {
+        int qx = quantize(targetX_ft);
+        int qy = quantize(targetY_ft);
+        Key key = new Key(arsenal.getPid(), arsenal.getBid(slot), qx, qy);
+        AnalyticTrajectory trajectory = entries.get(key);
+        if (trajectory != null) {
+            hits++;
+            return trajectory;
+        }
+        misses++;
+        trajectory = AnalyticTrajectory.solve(arsenal, slot, qx * TARGET_QUANTUM_FT, qy * TARGET_QUANTUM_FT);
+        entries.put(key, trajectory);
+        return trajectory;
+    }
+
+    // 投手數據變更時清除該投手的所有軌跡
+    public synchronized void invalidatePitcher(int pid) {
+        entries.keySet().removeIf(key -> key.pid == pid);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public int getCapacity() { return capacity; }
+
+    private static int quantize(double value_ft) {
+        return (int) Math.round(value_ft / TARGET_QUANTUM_FT);
+    }
+
+    private static final class Key {
+        final int pid, bid, qx, qy;
+
+        Key(int pid, int bid, int qx, int qy) {
+            this.pid = pid;
+            this.bid = bid;
+            this.qx = qx;
+            this.qy = qy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return pid == k.pid && bid == k.bid && qx == k.qx && qy == k.qy;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = pid;
+            h = 31 * h + bid;
+            h = 31 * h + qx;
+            return 31 * h + qy;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,248 @@
+package sim;
+
+import data.Arsenal;
+import data.Pitcher;
+import data.PitcherCatalog;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// 球種隧道效應分析：每位投手的每一對球種，在好球帶目標格網上求兩球在畫面上分開的距離
+// 球種 A 投向目標，球種 B 以相同的出手角度投出 (同一條「隧道」)，兩者只因速度與位移不同而分開；
+// 「分開」以攝影機投影判斷：同一深度下兩球的螢幕距離達到該深度的球徑 (與遊戲畫面的 project3D / calculateBallSize 相同)
+// 結果以 (PID, 兩個球種的數據) 為鍵快取，數據重新載入後只重算有變動的組合
+// 選擇畫面只分析選取的投手；整個名單的批次分析 (TunnelReport) 共用同一份快取
+public class TunnelAnalyzer {
+    public static final double DECISION_DISTANCE_FT = 23.8; // 約為到達本壘板前 175 ms，打者必須決定是否揮棒
+    public static final double DEPTH_STEP_FT = 0.25;
+    public static final int GRID_SIZE = 5; // 好球帶內 5x5 個目標
+
+    private final Camera camera;
+    private final int parallelism;
+    private final Map<Key, TunnelPair> cache = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Key>> keysByPid = new HashMap<>(); // 每位投手目前的組合
+    private int lastComputed;
+    private int lastReused;
+
+    public TunnelAnalyzer(Camera camera) {
+        this(camera, Runtime.getRuntime().availableProcessors());
+    }
+
+    public TunnelAnalyzer(Camera camera, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.camera = camera;
+        this.parallelism = parallelism;
+    }
+
+    // 分析一位投手的球種組合 (依平均分歧距離由近到遠)；選擇畫面選取投手時使用
+    // 結果依 PID 快取：同一位投手再次選取時直接取用，數據改變的組合重算並移除舊的結果
+    public synchronized List<TunnelPair> analyze(Arsenal arsenal) {
+        return analyzeAll(Collections.singletonList(arsenal)).get(arsenal.getPid());
+    }
+
+    // 分析整份快照 (整個名單的批次路徑)，回傳 PID -> 該投手的球種組合
+    // 與單一投手共用快取：只計算缺少或數據改變的組合；不在快照中的投手從快取移除
+    public synchronized Map<Integer, List<TunnelPair>> analyze(PitcherCatalog catalog) {
+        List<Arsenal> arsenals = new ArrayList<>();
+        Set<Integer> pids = new HashSet<>();
+        for (Pitcher pitcher : catalog.getPitchers()) {
+            arsenals.add(catalog.getArsenal(pitcher.getPid()));
+            pids.add(pitcher.getPid());
+        }
+        Iterator<Map.Entry<Integer, List<Key>>> entries = keysByPid.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, List<Key>> entry = entries.next();
+            if (pids.contains(entry.getKey())) continue;
+            for (Key key : entry.getValue()) {
+                cache.remove(key);
+            }
+            entries.remove();
+        }
+        return analyzeAll(arsenals);
+    }
+
+    private Map<Integer, List<TunnelPair>> analyzeAll(List<Arsenal> arsenals) {
+        Map<Integer, List<Key>> keysForPid = new LinkedHashMap<>();
+        List<Key> missing = new ArrayList<>();
+        int total = 0;
+        for (Arsenal arsenal : arsenals) {
+            List<Key> keys = new ArrayList<>();
+            for (int a = 0; a < arsenal.size(); a++) {
+                for (int b = a + 1; b < arsenal.size(); b++) {
+                    Key key = new Key(arsenal, a, b);
+                    keys.add(key);
+                    if (!cache.containsKey(key)) missing.add(key);
+                }
+            }
+            total += keys.size();
+            keysForPid.put(arsenal.getPid(), keys);
+            List<Key> previous = keysByPid.put(arsenal.getPid(), keys);
+            if (previous != null) {
+                Set<Key> current = new HashSet<>(keys);
+                for (Key key : previous) {
+                    if (!current.contains(key)) cache.remove(key);
+                }
+            }
+        }
+
+        // 只計算缺少的組合，各組合互相獨立，多於一組時平行處理
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<TunnelPair> computed = missing.size() <= 1
+                ? missing.stream().map(this::compute).collect(Collectors.toList())
+                : runInPool(cancelled, () -> missing.parallelStream().map(key -> {
+                    if (cancelled.get()) throw new CancellationException("Tunnel analysis cancelled");
+                    return compute(key);
+                }).collect(Collectors.toList()));
+        for (int i = 0; i < missing.size(); i++) {
+            cache.put(missing.get(i), computed.get(i));
+        }
+        lastComputed = missing.size();
+        lastReused = total - missing.size();
+
+        Map<Integer, List<TunnelPair>> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Key>> entry : keysForPid.entrySet()) {
+            List<TunnelPair> pairs = new ArrayList<>();
+            for (Key key : entry.getValue()) {
+                pairs.add(cache.get(key));
+            }
+            pairs.sort(Comparator.comparingDouble(TunnelPair::getMeanDivergence));
+            result.put(entry.getKey(), pairs);
+        }
+        return result;
+    }
+
+    private TunnelPair compute(Key key) {
+        double[] v = key.values;
+        int[] pa = new int[2], pb = new int[2];
+        // B 的加速度、飛行時間與速度與目標無關，先以任意目標求一次
+        AnalyticTrajectory referenceB = AnalyticTrajectory.solve(v[5], v[6], v[7], v[8], v[9], 0, 0);
+        double flightB = referenceB.getFlightTime();
+
+        double sumDivergence = 0, minDivergence = Double.MAX_VALUE, bestX = 0, bestY = 0, sumSeparation = 0;
+        for (int gx = 0; gx < GRID_SIZE; gx++) {
+            double targetX = PitchSimulator.STRIKE_ZONE_LEFT_FT
+                    + (PitchSimulator.STRIKE_ZONE_RIGHT_FT - PitchSimulator.STRIKE_ZONE_LEFT_FT) * gx / (GRID_SIZE - 1);
+            for (int gy = 0; gy < GRID_SIZE; gy++) {
+                double targetY = PitchSimulator.STRIKE_ZONE_BOTTOM_FT
+                        + (PitchSimulator.STRIKE_ZONE_TOP_FT - PitchSimulator.STRIKE_ZONE_BOTTOM_FT) * gy / (GRID_SIZE - 1);
+                AnalyticTrajectory a = AnalyticTrajectory.solve(v[0], v[1], v[2], v[3], v[4], targetX, targetY);
+
+                // 相同出手角度：B 的橫向初速與 A 的比例相同，再由封閉解求出 B 的落點
+                double scale = referenceB.getVz() / a.getVz();
+                double plateX = v[5] + a.getVx() * scale * flightB + 0.5 * referenceB.getAx() * flightB * flightB;
+                double plateY = v[6] + a.getVy() * scale * flightB + 0.5 * referenceB.getAy() * flightB * flightB;
+                AnalyticTrajectory b = AnalyticTrajectory.solve(v[5], v[6], v[7], v[8], v[9], plateX, plateY);
+
+                double divergence = divergenceDistance(a, b, pa, pb);
+                sumDivergence += divergence;
+                if (divergence < minDivergence) {
+                    minDivergence = divergence;
+                    bestX = targetX;
+                    bestY = targetY;
+                }
+                sumSeparation += Math.hypot(a.getPlateX() - b.getPlateX(), a.getPlateY() - b.getPlateY()) * 12;
+            }
+        }
+        int targets = GRID_SIZE * GRID_SIZE;
+        return new TunnelPair(key.pid, key.bidA, key.bidB, key.nameA, key.nameB, sumDivergence / targets, minDivergence,
+                bestX, bestY, sumSeparation / targets);
+    }
+
+    // 由本壘板往投手方向掃描，回傳兩球最後一次仍重疊的位置離本壘板的距離
+    // 兩球到本壘板都沒有分開時為 0；整段飛行都分開時為整段距離
+    private double divergenceDistance(AnalyticTrajectory a, AnalyticTrajectory b, int[] pa, int[] pb) {
+        double plateZ = PitchSimulator.HOME_PLATE_FRONT_FT;
+        double flightDistance = Math.min(a.getStartZ(), b.getStartZ()) - plateZ;
+        int samples = (int) (flightDistance / DEPTH_STEP_FT);
+        for (int i = 0; i <= samples; i++) {
+            double distance = i * DEPTH_STEP_FT;
+            if (!isSeparated(a, b, plateZ + distance, pa, pb)) return distance;
+        }
+        return flightDistance;
+    }
+
+    private boolean isSeparated(AnalyticTrajectory a, AnalyticTrajectory b, double z_ft, int[] pa, int[] pb) {
+        double ta = a.timeAtZ(z_ft), tb = b.timeAtZ(z_ft);
+        if (!camera.project(a.xAt(ta), a.yAt(ta), z_ft, pa) || !camera.project(b.xAt(tb), b.yAt(tb), z_ft, pb)) {
+            return false;
+        }
+        int dx = pa[0] - pb[0], dy = pa[1] - pb[1];
+        int size = camera.ballSize(z_ft);
+        return dx * dx + dy * dy >= size * size;
+    }
+
+    // 在專用的 ForkJoinPool 執行，不佔用 common pool
+    // 呼叫端執行緒被中斷 (例如背景工作已取消) 時設定旗標，尚未開始的組合不再計算
+    private <T> T runInPool(AtomicBoolean cancelled, Callable<T> task) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tunnel analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tunnel analysis failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public synchronized int getLastComputed() { return lastComputed; }
+    public synchronized int getLastReused() { return lastReused; }
+    public int getCacheSize() { return cache.size(); }
+    public Camera getCamera() { return camera; }
+
+    // 組合的鍵包含兩個球種的完整數據，任何一列改變都會得到新的鍵
+    private static final class Key {
+        final int pid, bidA, bidB;
+        final String nameA, nameB;
+        final double[] values; // A 與 B 各自的 REX, REY, SPEED, HMOV, VMOV
+
+        Key(Arsenal arsenal, int slotA, int slotB) {
+            this.pid = arsenal.getPid();
+            this.bidA = arsenal.getBid(slotA);
+            this.bidB = arsenal.getBid(slotB);
+            this.nameA = arsenal.getName(slotA);
+            this.nameB = arsenal.getName(slotB);
+            this.values = new double[] {
+                    arsenal.getRex(slotA), arsenal.getRey(slotA), arsenal.getSpeed(slotA), arsenal.getHmov(slotA), arsenal.getVmov(slotA),
+                    arsenal.getRex(slotB), arsenal.getRey(slotB), arsenal.getSpeed(slotB), arsenal.getHmov(slotB), arsenal.getVmov(slotB)
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return pid == k.pid && bidA == k.bidA && bidB == k.bidB && nameA.equals(k.nameA) && nameB.equals(k.nameB)
+                    && Arrays.equals(values, k.values);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = pid;
+            h = 31 * h + bidA;
+            h = 31 * h + bidB;
+            return 31 * h + Arrays.hashCode(values);
+        }
+    }
+}
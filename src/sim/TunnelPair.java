@@ -0,0 +1,43 @@
+package sim;
+
+// 兩個球種的隧道效應結果，彙總整個目標格網
+// 分歧距離：離本壘板多遠時兩球在畫面上已經分開超過一個球徑 (之後不再重疊)，愈小代表打者愈晚才能分辨
+public final class TunnelPair {
+    private final int pid;
+    private final int bidA, bidB;
+    private final String nameA, nameB;
+    private final double meanDivergence_ft;
+    private final double minDivergence_ft;
+    private final double bestTargetX_ft, bestTargetY_ft; // 分歧最晚的目標落點 (球種 A)
+    private final double meanPlateSeparation_in;
+
+    TunnelPair(int pid, int bidA, int bidB, String nameA, String nameB, double meanDivergence_ft, double minDivergence_ft,
+               double bestTargetX_ft, double bestTargetY_ft, double meanPlateSeparation_in) {
+        this.pid = pid;
+        this.bidA = bidA;
+        this.bidB = bidB;
+        this.nameA = nameA;
+        this.nameB = nameB;
+        this.meanDivergence_ft = meanDivergence_ft;
+        this.minDivergence_ft = minDivergence_ft;
+        this.bestTargetX_ft = bestTargetX_ft;
+        this.bestTargetY_ft = bestTargetY_ft;
+        this.meanPlateSeparation_in = meanPlateSeparation_in;
+    }
+
+    // 平均分歧點在打者決定揮棒的距離之內，打者來不及分辨
+    public boolean isTunnel() {
+        return meanDivergence_ft < TunnelAnalyzer.DECISION_DISTANCE_FT;
+    }
+
+    public int getPid() { return pid; }
+    public int getBidA() { return bidA; }
+    public int getBidB() { return bidB; }
+    public String getNameA() { return nameA; }
+    public String getNameB() { return nameB; }
+    public double getMeanDivergence() { return meanDivergence_ft; }
+    public double getMinDivergence() { return minDivergence_ft; }
+    public double getBestTargetX() { return bestTargetX_ft; }
+    public double getBestTargetY() { return bestTargetY_ft; }
+    public double getMeanPlateSeparation() { return meanPlateSeparation_in; }
+}